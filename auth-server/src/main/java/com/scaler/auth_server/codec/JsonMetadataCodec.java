@@ -0,0 +1,65 @@
+package com.scaler.auth_server.codec;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+
+/**
+ * Plain JSON codec. Reader and writer are built once, and small payloads holding only scalar
+ * values (such as {@code {"metadata.token.invalidated":false}}, which most tokens carry) are
+ * decoded once and shared as unmodifiable maps.
+ */
+public class JsonMetadataCodec implements MetadataCodec {
+  protected static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+  private static final int MEMOIZED_MAX_LENGTH = 256;
+
+  private final ObjectReader jsonReader;
+  private final ObjectWriter jsonWriter;
+  private final Cache<String, Map<String, Object>> memoized =
+      Caffeine.newBuilder().maximumSize(1024).build();
+
+  public JsonMetadataCodec(ObjectMapper objectMapper) {
+    this.jsonReader = objectMapper.readerFor(MAP_TYPE);
+    this.jsonWriter = objectMapper.writerFor(MAP_TYPE);
+  }
+
+  @Override
+  public String encode(Map<String, Object> data) {
+    return this.jsonWriter.writeValueAsString(data);
+  }
+
+  @Override
+  public Map<String, Object> decode(String data) {
+    if (data.length() > MEMOIZED_MAX_LENGTH) {
+      return decodeValue(data);
+    }
+    Map<String, Object> decoded = this.memoized.getIfPresent(data);
+    if (decoded == null) {
+      decoded = decodeValue(data);
+      if (isScalar(decoded)) {
+        decoded = Collections.unmodifiableMap(new LinkedHashMap<>(decoded));
+        this.memoized.put(data, decoded);
+      }
+    }
+    return decoded;
+  }
+
+  protected Map<String, Object> decodeValue(String data) {
+    return this.jsonReader.readValue(data);
+  }
+
+  private static boolean isScalar(Map<String, Object> decoded) {
+    for (Object value : decoded.values()) {
+      if (value instanceof Map || value instanceof Iterable || value instanceof Object[]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
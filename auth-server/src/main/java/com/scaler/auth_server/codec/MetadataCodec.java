@@ -0,0 +1,15 @@
+package com.scaler.auth_server.codec;
+
+import java.util.Map;
+
+/**
+ * Encodes the attribute, metadata and claims maps of an authorization into the text columns of
+ * the {@code authorization} table and back.
+ */
+public interface MetadataCodec {
+
+  String encode(Map<String, Object> data);
+
+  Map<String, Object> decode(String data);
+
+}
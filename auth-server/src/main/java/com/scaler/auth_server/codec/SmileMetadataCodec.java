@@ -0,0 +1,40 @@
+package com.scaler.auth_server.codec;
+
+import java.util.Base64;
+import java.util.Map;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Binary codec writing Jackson Smile, Base64 encoded behind a {@value #PREFIX} marker so the
+ * existing text columns can hold it. Values without the marker are decoded as JSON, so rows
+ * written before the switch stay readable and no migration is needed.
+ */
+public class SmileMetadataCodec extends JsonMetadataCodec {
+  static final String PREFIX = "smile:";
+
+  private final ObjectReader smileReader;
+  private final ObjectWriter smileWriter;
+
+  public SmileMetadataCodec(ObjectMapper objectMapper) {
+    super(objectMapper);
+    SmileMapper smileMapper = new SmileMapper();
+    this.smileReader = smileMapper.readerFor(MAP_TYPE);
+    this.smileWriter = smileMapper.writerFor(MAP_TYPE);
+  }
+
+  @Override
+  public String encode(Map<String, Object> data) {
+    return PREFIX + Base64.getEncoder().encodeToString(this.smileWriter.writeValueAsBytes(data));
+  }
+
+  @Override
+  protected Map<String, Object> decodeValue(String data) {
+    if (!data.startsWith(PREFIX)) {
+      return super.decodeValue(data);
+    }
+    return this.smileReader.readValue(Base64.getDecoder().decode(data.substring(PREFIX.length())));
+  }
+}
@@ -0,0 +1,16 @@
+package com.scaler.auth_server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limits of listing and revoking the authorizations of a user or client.
+ *
+ * @param defaultPageSize authorizations listed when the request sets no limit
+ * @param maxPageSize maximum number of authorizations listed per request
+ * @param revocationBatchSize authorizations deleted per transaction when revoking
+ */
+@ConfigurationProperties("auth-server.authorization-management")
+public record AuthorizationManagementProperties(@DefaultValue("50") int defaultPageSize,
+    @DefaultValue("200") int maxPageSize, @DefaultValue("500") int revocationBatchSize) {
+}
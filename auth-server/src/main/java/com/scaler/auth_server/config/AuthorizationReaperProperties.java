@@ -0,0 +1,22 @@
+package com.scaler.auth_server.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Pace of the expired authorization reaper.
+ *
+ * @param enabled whether this node runs the reaper
+ * @param interval delay between two reaper runs
+ * @param gracePeriod how long an authorization is kept after its last token expired
+ * @param batchSize number of rows scanned and deleted per transaction
+ * @param batchDelay pause between two batches, bounding the delete rate
+ * @param maxBatchesPerRun upper bound on batches per run; the rest is picked up by the next run
+ */
+@ConfigurationProperties("auth-server.authorization-reaper")
+public record AuthorizationReaperProperties(@DefaultValue("true") boolean enabled,
+    @DefaultValue("5m") Duration interval, @DefaultValue("5m") Duration gracePeriod,
+    @DefaultValue("500") int batchSize, @DefaultValue("200ms") Duration batchDelay,
+    @DefaultValue("100") int maxBatchesPerRun) {
+}
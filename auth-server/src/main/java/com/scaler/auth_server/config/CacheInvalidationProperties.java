@@ -0,0 +1,21 @@
+package com.scaler.auth_server.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Tuning of the cluster-wide cache invalidation log.
+ *
+ * @param pollInterval delay between two polls of the log; bounds how long a peer serves a stale
+ *        entry
+ * @param batchSize maximum number of log rows read per query
+ * @param settleWindow how long a row stays in the re-scanned window, so rows whose transaction
+ *        commits out of id order are still picked up
+ * @param retention age after which log rows are purged
+ */
+@ConfigurationProperties("auth-server.cache-invalidation")
+public record CacheInvalidationProperties(@DefaultValue("2s") Duration pollInterval,
+    @DefaultValue("500") int batchSize, @DefaultValue("10s") Duration settleWindow,
+    @DefaultValue("1h") Duration retention) {
+}
@@ -0,0 +1,16 @@
+package com.scaler.auth_server.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Bounds of the in-process {@code RegisteredClient} cache.
+ *
+ * @param maximumSize maximum number of clients held per key space (id and clientId)
+ * @param timeToLive how long a resolved client is served before it is reloaded
+ */
+@ConfigurationProperties("auth-server.client-cache")
+public record ClientCacheProperties(@DefaultValue("10000") long maximumSize,
+    @DefaultValue("10m") Duration timeToLive) {
+}
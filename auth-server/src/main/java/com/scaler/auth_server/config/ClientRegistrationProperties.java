@@ -0,0 +1,18 @@
+package com.scaler.auth_server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limits of batch client registration.
+ *
+ * @param maxBatchSize maximum number of clients accepted in one request
+ * @param chunkSize clients hashed and inserted per transaction
+ * @param hashingParallelism client secrets hashed at once across all batch registrations;
+ *        {@code 0} uses half the password hashing threads (at least one), leaving the rest to
+ *        logins
+ */
+@ConfigurationProperties("auth-server.client-registration")
+public record ClientRegistrationProperties(@DefaultValue("10000") int maxBatchSize,
+    @DefaultValue("100") int chunkSize, @DefaultValue("0") int hashingParallelism) {
+}
@@ -0,0 +1,30 @@
+package com.scaler.auth_server.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Adaptive concurrency limits in front of the OAuth2 endpoints and {@code /api/auth}. Every
+ * endpoint class (token, other OAuth2 endpoints, login, registration) gets its own limiter with
+ * these settings.
+ *
+ * @param enabled reject requests beyond the limit with 503 instead of queueing them
+ * @param initialLimit concurrent requests allowed before any latency has been observed
+ * @param minLimit lower bound of the limit
+ * @param maxLimit upper bound of the limit
+ * @param sampleWindow period over which latencies are averaged before the limit is adjusted
+ * @param rttTolerance how much slower than the long-term average a window may be before the
+ *        limit shrinks
+ * @param smoothing weight of each adjustment, between 0 and 1
+ * @param backoffRatio factor applied to the limit after a window with an overload response
+ *        (503 or an exception) from the endpoint itself
+ * @param retryAfter hint returned with rejected requests
+ */
+@ConfigurationProperties("auth-server.concurrency-limit")
+public record ConcurrencyLimitProperties(@DefaultValue("true") boolean enabled,
+    @DefaultValue("20") int initialLimit, @DefaultValue("4") int minLimit,
+    @DefaultValue("200") int maxLimit, @DefaultValue("100ms") Duration sampleWindow,
+    @DefaultValue("1.5") double rttTolerance, @DefaultValue("0.2") double smoothing,
+    @DefaultValue("0.9") double backoffRatio, @DefaultValue("1s") Duration retryAfter) {
+}
@@ -0,0 +1,16 @@
+package com.scaler.auth_server.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Bounds of the in-process authorization consent cache.
+ *
+ * @param maximumSize maximum number of (client, principal) pairs held, with or without a consent
+ * @param timeToLive how long a resolved consent is served before it is reloaded
+ */
+@ConfigurationProperties("auth-server.consent-cache")
+public record ConsentCacheProperties(@DefaultValue("100000") long maximumSize,
+    @DefaultValue("10m") Duration timeToLive) {
+}
@@ -0,0 +1,44 @@
+package com.scaler.auth_server.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import com.nimbusds.jose.JWSAlgorithm;
+
+/**
+ * Lifecycle of the shared JWT signing keys.
+ *
+ * @param rotationPeriod how long a key signs before its successor is generated
+ * @param activationDelay how long a new key is published before it signs; must exceed
+ *        {@code refreshInterval} so every node can verify it first
+ * @param retention how long a retired key stays published; must exceed the longest token lifetime
+ * @param refreshInterval how often each node reloads the key set and checks for due rotations
+ * @param encryptionKey optional Base64 encoded 256-bit key encrypting private keys at rest
+ * @param algorithm algorithm of newly generated keys; changing it rotates the active key on the
+ *        next refresh, and keys of the previous algorithm stay verifiable until they expire
+ */
+@ConfigurationProperties("auth-server.jwk")
+public record JwkProperties(@DefaultValue("30d") Duration rotationPeriod,
+    @DefaultValue("5m") Duration activationDelay, @DefaultValue("1d") Duration retention,
+    @DefaultValue("1m") Duration refreshInterval, String encryptionKey,
+    @DefaultValue("rs256") Algorithm algorithm) {
+
+  public enum Algorithm {
+    /** RSA 2048 with SHA-256. */
+    RS256(JWSAlgorithm.RS256),
+    /** ECDSA on P-256 with SHA-256, considerably cheaper to sign than RS256. */
+    ES256(JWSAlgorithm.ES256),
+    /** Ed25519, the cheapest to sign and verify. */
+    EDDSA(JWSAlgorithm.EdDSA);
+
+    private final JWSAlgorithm jwsAlgorithm;
+
+    Algorithm(JWSAlgorithm jwsAlgorithm) {
+      this.jwsAlgorithm = jwsAlgorithm;
+    }
+
+    public JWSAlgorithm jwsAlgorithm() {
+      return this.jwsAlgorithm;
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package com.scaler.auth_server.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Cache of already verified JWTs in front of the resource server's {@code JwtDecoder}.
+ *
+ * @param enabled skip signature verification of tokens decoded before
+ * @param maximumSize maximum number of verified tokens held
+ * @param maximumTimeToLive upper bound on how long a verified token is cached; entries never
+ *        outlive the token's {@code exp}
+ */
+@ConfigurationProperties("auth-server.jwt-cache")
+public record JwtCacheProperties(@DefaultValue("true") boolean enabled,
+    @DefaultValue("10000") long maximumSize, @DefaultValue("5m") Duration maximumTimeToLive) {
+}
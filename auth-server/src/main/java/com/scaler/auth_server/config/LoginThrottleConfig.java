@@ -0,0 +1,28 @@
+package com.scaler.auth_server.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import com.scaler.auth_server.repositories.LoginThrottleBucketRepository;
+import com.scaler.auth_server.throttle.DatabaseTokenBucketStore;
+import com.scaler.auth_server.throttle.InMemoryTokenBucketStore;
+import com.scaler.auth_server.throttle.TokenBucketStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+@Configuration
+public class LoginThrottleConfig {
+
+  @Bean
+  TokenBucketStore loginThrottleStore(LoginThrottleProperties loginThrottleProperties,
+      LoginThrottleBucketRepository loginThrottleBucketRepository, MeterRegistry meterRegistry) {
+    return switch (loginThrottleProperties.store()) {
+      case MEMORY -> {
+        InMemoryTokenBucketStore store =
+            new InMemoryTokenBucketStore(loginThrottleProperties.maximumSize());
+        CaffeineCacheMetrics.monitor(meterRegistry, store.getBuckets(), "loginThrottleBuckets");
+        yield store;
+      }
+      case DATABASE -> new DatabaseTokenBucketStore(loginThrottleBucketRepository);
+    };
+  }
+}
@@ -0,0 +1,41 @@
+package com.scaler.auth_server.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import com.scaler.auth_server.throttle.BucketLimit;
+
+/**
+ * Token buckets limiting login attempts per account (email) and per client address. Every attempt
+ * takes a token from both buckets and a successful one gives them back, so only failures drain
+ * them. A failure takes a second token from the address.
+ *
+ * @param enabled reject attempts from an empty bucket before the user is looked up
+ * @param store where buckets live: {@code memory} (per node) or {@code database} (shared by all
+ *        nodes, PostgreSQL only)
+ * @param maximumSize maximum number of buckets held in memory by the {@code memory} store
+ * @param accountCapacity failed attempts an account absorbs in a burst
+ * @param accountRefillPeriod time until an account regains one attempt
+ * @param addressCapacity tokens of an address; it absorbs half as many failed attempts in a burst
+ * @param addressRefillPeriod time until an address regains one token
+ * @param cleanupInterval how often idle buckets are deleted
+ */
+@ConfigurationProperties("auth-server.login-throttle")
+public record LoginThrottleProperties(@DefaultValue("true") boolean enabled,
+    @DefaultValue("memory") Store store, @DefaultValue("100000") long maximumSize,
+    @DefaultValue("10") int accountCapacity, @DefaultValue("30s") Duration accountRefillPeriod,
+    @DefaultValue("100") int addressCapacity, @DefaultValue("1s") Duration addressRefillPeriod,
+    @DefaultValue("10m") Duration cleanupInterval) {
+
+  public BucketLimit accountLimit() {
+    return new BucketLimit(this.accountCapacity, this.accountRefillPeriod);
+  }
+
+  public BucketLimit addressLimit() {
+    return new BucketLimit(this.addressCapacity, this.addressRefillPeriod);
+  }
+
+  public enum Store {
+    MEMORY, DATABASE
+  }
+}
@@ -0,0 +1,21 @@
+package com.scaler.auth_server.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import com.scaler.auth_server.codec.JsonMetadataCodec;
+import com.scaler.auth_server.codec.MetadataCodec;
+import com.scaler.auth_server.codec.SmileMetadataCodec;
+import tools.jackson.databind.ObjectMapper;
+
+@Configuration
+public class MetadataCodecConfig {
+
+  @Bean
+  MetadataCodec metadataCodec(TokenStoreProperties tokenStoreProperties) {
+    ObjectMapper objectMapper = new ObjectMapper();
+    return switch (tokenStoreProperties.metadataFormat()) {
+      case JSON -> new JsonMetadataCodec(objectMapper);
+      case SMILE -> new SmileMetadataCodec(objectMapper);
+    };
+  }
+}
@@ -0,0 +1,33 @@
+package com.scaler.auth_server.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Password hashing scheme, its calibration, and bounds of the executor running hashing and
+ * verification.
+ *
+ * @param threads number of hashing threads; {@code 0} uses one per available processor
+ * @param queueCapacity hashing requests allowed to wait for a thread before new ones are rejected
+ * @param retryAfter hint returned to clients whose request was rejected
+ * @param algorithm scheme of new hashes; hashes of the other scheme are upgraded at login
+ * @param bcryptStrength BCrypt work factor of new hashes (10 to 16); weaker hashes are upgraded at
+ *        login
+ * @param argon2Iterations Argon2id iterations of new hashes (2 to 10); weaker hashes are upgraded
+ *        at login
+ * @param calibrate whether to time hashes at startup and log the work factors that would meet
+ *        {@code targetHashTime} on this node; the configured ones are used either way
+ * @param targetHashTime hashing time the startup calibration aims for
+ */
+@ConfigurationProperties("auth-server.password-hashing")
+public record PasswordHashingProperties(@DefaultValue("0") int threads,
+    @DefaultValue("64") int queueCapacity, @DefaultValue("1s") Duration retryAfter,
+    @DefaultValue("bcrypt") Algorithm algorithm, @DefaultValue("12") int bcryptStrength,
+    @DefaultValue("3") int argon2Iterations, @DefaultValue("false") boolean calibrate,
+    @DefaultValue("250ms") Duration targetHashTime) {
+
+  public enum Algorithm {
+    BCRYPT, ARGON2
+  }
+}
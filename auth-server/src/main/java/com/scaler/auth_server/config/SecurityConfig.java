@@ -1,42 +1,66 @@
 package com.scaler.auth_server.config;
 
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
-import java.util.UUID;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authentication.ProviderManager;
-import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.config.annotation.web.configuration.OAuth2AuthorizationServerConfiguration;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
 import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
+import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
 import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.session.DisableEncodeUrlFilter;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfigurationSource;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.springframework.web.filter.CorsFilter;
+import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
 import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import com.scaler.auth_server.exception.CustomAccessDeniedHandler;
 import com.scaler.auth_server.exception.CustomBasicAuthenticationEntryPoint;
 import com.scaler.auth_server.security.AppUsernamePwdAuthenticationProvider;
+import com.scaler.auth_server.security.BoundedPasswordEncoder;
+import com.scaler.auth_server.security.CachingJwtDecoder;
+import com.scaler.auth_server.security.CalibratedPasswordEncoder;
+import com.scaler.auth_server.security.ConcurrencyLimitFilter;
+import com.scaler.auth_server.security.HashingCapacityExceededFilter;
+import com.scaler.auth_server.security.TimedJwtEncoder;
+import com.scaler.auth_server.security.TokenEndpointMetricsFilter;
+import com.scaler.auth_server.services.JwkSetService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.servlet.http.Cookie;
 import lombok.RequiredArgsConstructor;
 
@@ -49,32 +73,72 @@ public class SecurityConfig {
 
   @Bean
   @Order(1)
-  public SecurityFilterChain authorizationServerSecurityFilterChain(HttpSecurity http)
+  public SecurityFilterChain authorizationServerSecurityFilterChain(HttpSecurity http,
+      OAuth2AuthorizationService authorizationService, JwkSetService jwkSetService,
+      AuthorizationServerSettings authorizationServerSettings,
+      ConcurrencyLimitProperties concurrencyLimitProperties, MeterRegistry meterRegistry)
       throws Exception {
 
     http.oauth2AuthorizationServer((authorizationServer) -> {
       http.securityMatcher(authorizationServer.getEndpointsMatcher());
-      authorizationServer.oidc(Customizer.withDefaults()); // Enable OpenID Connect 1.0
+      authorizationServer.authorizationService(authorizationService);
+      // Enable OpenID Connect 1.0, advertising the algorithms of the published keys
+      authorizationServer.oidc(oidc -> oidc.providerConfigurationEndpoint(
+          providerConfiguration -> providerConfiguration.providerConfigurationCustomizer(
+              builder -> builder.idTokenSigningAlgorithms(algorithms -> {
+                algorithms.clear();
+                algorithms.addAll(jwkSetService.getPublishedAlgorithms());
+              }))));
     }).authorizeHttpRequests((authorize) -> authorize.anyRequest().authenticated())
         // Redirect to the login page when not authenticated from the
         // authorization endpoint
         .exceptionHandling((exceptions) -> exceptions
-            .authenticationEntryPoint(new LoginUrlAuthenticationEntryPoint("/login")));
+            .authenticationEntryPoint(new LoginUrlAuthenticationEntryPoint("/login")))
+        // Outermost, so client authentication is part of the measured latency
+        .addFilterBefore(new TokenEndpointMetricsFilter(
+            authorizationServerSettings.getTokenEndpoint(), meterRegistry),
+            DisableEncodeUrlFilter.class);
+    if (concurrencyLimitProperties.enabled()) {
+      // Right after the metrics filter, so shed requests are measured too
+      Map<String, RequestMatcher> endpointClasses = new LinkedHashMap<>();
+      endpointClasses.put("token", PathPatternRequestMatcher.withDefaults()
+          .matcher(HttpMethod.POST, authorizationServerSettings.getTokenEndpoint()));
+      endpointClasses.put("oauth2", AnyRequestMatcher.INSTANCE);
+      http.addFilterBefore(new ConcurrencyLimitFilter(endpointClasses,
+          concurrencyLimitProperties, meterRegistry), DisableEncodeUrlFilter.class);
+    }
+    // Inside the limit, so a saturated hashing pool during client authentication counts as
+    // overload and is answered with 503 instead of 500
+    http.addFilterBefore(new HashingCapacityExceededFilter(), DisableEncodeUrlFilter.class);
 
     return http.build();
   }
 
   @Bean
   @Order(2)
-  SecurityFilterChain defaultSecurityFilterChain(HttpSecurity httpSecurity) throws Exception {
+  SecurityFilterChain defaultSecurityFilterChain(HttpSecurity httpSecurity,
+      ConcurrencyLimitProperties concurrencyLimitProperties, MeterRegistry meterRegistry)
+      throws Exception {
 
     httpSecurity
         .sessionManagement(smc -> smc.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
     httpSecurity.cors(cors -> cors.configurationSource(corsConfigurationSource));
+    if (concurrencyLimitProperties.enabled()) {
+      // After CORS, so browsers can read the 503 of a shed request
+      PathPatternRequestMatcher.Builder paths = PathPatternRequestMatcher.withDefaults();
+      Map<String, RequestMatcher> endpointClasses = new LinkedHashMap<>();
+      endpointClasses.put("login", paths.matcher(HttpMethod.POST, "/api/auth/login"));
+      endpointClasses.put("register", paths.matcher(HttpMethod.POST, "/api/auth/register"));
+      httpSecurity.addFilterAfter(new ConcurrencyLimitFilter(endpointClasses,
+          concurrencyLimitProperties, meterRegistry), CorsFilter.class);
+    }
     httpSecurity.csrf(AbstractHttpConfigurer::disable);
     httpSecurity.authorizeHttpRequests(authorizeRequests -> authorizeRequests
-        .requestMatchers("/api/auth/register", "/api/auth/login").permitAll().anyRequest()
-        .authenticated());
+        .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
+        .requestMatchers("/clients/{clientId}/authorizations").access(SecurityConfig::isOwnClient)
+        .requestMatchers(HttpMethod.DELETE, "/api/users/me/authorizations")
+        .access(SecurityConfig::isFirstPartyToken)
+        .anyRequest().authenticated());
     httpSecurity.exceptionHandling(ehc -> ehc.accessDeniedHandler(new CustomAccessDeniedHandler())
         .authenticationEntryPoint(new CustomBasicAuthenticationEntryPoint()));
     httpSecurity
@@ -85,36 +149,80 @@ public class SecurityConfig {
   }
 
   @Bean
-  public JWKSource<SecurityContext> jwkSource() {
-    KeyPair keyPair = generateRsaKey();
-    RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
-    RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
-    RSAKey rsaKey = new RSAKey.Builder(publicKey).privateKey(privateKey)
-        .keyID(UUID.randomUUID().toString()).build();
-    JWKSet jwkSet = new JWKSet(rsaKey);
-    return new ImmutableJWKSet<>(jwkSet);
+  public JWKSource<SecurityContext> jwkSource(JwkSetService jwkSetService) {
+    return jwkSetService.verificationKeys();
   }
 
   @Bean
-  JwtEncoder jwtEncoder(JWKSource<SecurityContext> jwkSource) {
-    return new NimbusJwtEncoder(jwkSource);
+  JwtEncoder jwtEncoder(JwkSetService jwkSetService, MeterRegistry meterRegistry) {
+    return new TimedJwtEncoder(jwkSetService.signingEncoder(), meterRegistry);
   }
 
-  private static KeyPair generateRsaKey() {
-    KeyPair keyPair;
-    try {
-      KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
-      keyPairGenerator.initialize(2048);
-      keyPair = keyPairGenerator.generateKeyPair();
-    } catch (Exception ex) {
-      throw new IllegalStateException(ex);
-    }
-    return keyPair;
+  @Bean
+  OAuth2TokenCustomizer<JwtEncodingContext> jwtTokenCustomizer(JwkSetService jwkSetService) {
+    // Tokens issued by the authorization server default to RS256; the encoder re-checks the
+    // algorithm against the key it signs with
+    return context -> {
+      context.getJwsHeader().algorithm(jwkSetService.getSigningAlgorithm());
+      if (OAuth2TokenType.ACCESS_TOKEN.equals(context.getTokenType())) {
+        // As in RFC 9068, so resource endpoints can tell which client a token was issued to
+        context.getClaims().claim("client_id", context.getRegisteredClient().getClientId());
+      }
+    };
+  }
+
+  /**
+   * Grants access to a client's own resources only to a token the client obtained for itself
+   * (client credentials), whose subject and {@code client_id} are both the client. User tokens,
+   * including those issued through the client, are denied.
+   */
+  private static AuthorizationDecision isOwnClient(
+      Supplier<? extends Authentication> authentication, RequestAuthorizationContext context) {
+    String clientId = context.getVariables().get("clientId");
+    return new AuthorizationDecision(clientId != null
+        && authentication.get() instanceof JwtAuthenticationToken jwtAuthentication
+        && clientId.equals(jwtAuthentication.getToken().getSubject())
+        && clientId.equals(jwtAuthentication.getToken().getClaimAsString("client_id")));
+  }
+
+  /**
+   * Grants access only to a token issued by {@code /api/auth/login}. Tokens from the OAuth2
+   * endpoints carry the {@code client_id} they were issued to, so a third-party client acting
+   * for the user cannot end all of the user's sessions.
+   */
+  private static AuthorizationDecision isFirstPartyToken(
+      Supplier<? extends Authentication> authentication, RequestAuthorizationContext context) {
+    return new AuthorizationDecision(
+        authentication.get() instanceof JwtAuthenticationToken jwtAuthentication
+            && !jwtAuthentication.getToken().hasClaim("client_id"));
   }
 
   @Bean
-  JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource) {
-    return OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
+  JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource,
+      JwtCacheProperties jwtCacheProperties, MeterRegistry meterRegistry) {
+    JwtDecoder jwtDecoder = verifyingJwtDecoder(jwkSource);
+    if (!jwtCacheProperties.enabled()) {
+      return jwtDecoder;
+    }
+    CachingJwtDecoder cachingJwtDecoder = new CachingJwtDecoder(jwtDecoder,
+        jwtCacheProperties.maximumSize(), jwtCacheProperties.maximumTimeToLive());
+    CaffeineCacheMetrics.monitor(meterRegistry, cachingJwtDecoder.getVerifiedTokens(),
+        "verifiedJwts");
+    return cachingJwtDecoder;
+  }
+
+  static JwtDecoder verifyingJwtDecoder(JWKSource<SecurityContext> jwkSource) {
+    // As OAuth2AuthorizationServerConfiguration.jwtDecoder, plus EdDSA
+    Set<JWSAlgorithm> jwsAlgorithms = new HashSet<>();
+    jwsAlgorithms.addAll(JWSAlgorithm.Family.RSA);
+    jwsAlgorithms.addAll(JWSAlgorithm.Family.EC);
+    jwsAlgorithms.addAll(JWSAlgorithm.Family.ED);
+    ConfigurableJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+    jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(jwsAlgorithms, jwkSource));
+    // NimbusJwtDecoder validates the claims instead
+    jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+    });
+    return new NimbusJwtDecoder(jwtProcessor);
   }
 
   @Bean
@@ -156,15 +264,25 @@ public class SecurityConfig {
   }
 
   @Bean
-  PasswordEncoder passwordEncoder() {
-    return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+  CalibratedPasswordEncoder calibratedPasswordEncoder(
+      PasswordHashingProperties passwordHashingProperties) {
+    return CalibratedPasswordEncoder.create(passwordHashingProperties);
+  }
+
+  @Bean
+  @Primary
+  PasswordEncoder passwordEncoder(CalibratedPasswordEncoder calibratedPasswordEncoder,
+      PasswordHashingProperties passwordHashingProperties, MeterRegistry meterRegistry) {
+    return new BoundedPasswordEncoder(calibratedPasswordEncoder, passwordHashingProperties,
+        meterRegistry);
   }
 
   @Bean
   AuthenticationManager authenticationManager(UserDetailsService userDetailsService,
-      PasswordEncoder passwordEncoder) {
-    AppUsernamePwdAuthenticationProvider authProvider =
-        new AppUsernamePwdAuthenticationProvider(userDetailsService, passwordEncoder);
+      PasswordEncoder passwordEncoder, UserDetailsPasswordService userDetailsPasswordService,
+      MeterRegistry meterRegistry) {
+    AppUsernamePwdAuthenticationProvider authProvider = new AppUsernamePwdAuthenticationProvider(
+        userDetailsService, passwordEncoder, userDetailsPasswordService, meterRegistry);
     ProviderManager providerManager = new ProviderManager(authProvider);
     providerManager.setEraseCredentialsAfterAuthentication(false);
 
@@ -0,0 +1,36 @@
+package com.scaler.auth_server.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Tier policy of the authorization store.
+ *
+ * @param hotTierEnabled keep authorizations without access or refresh tokens (state, authorization
+ *        code, device/user code) in memory only; authorize and token requests of one flow must
+ *        reach the same node
+ * @param hotTierMaximumSize maximum number of authorizations held in memory
+ * @param hotTierDefaultTimeToLive expiry of in-memory authorizations that carry no expiring token
+ * @param writeBehind persist authorizations carrying access or refresh tokens asynchronously,
+ *        group-committing queued saves and removes and serving reads from the queue until the
+ *        write commits
+ * @param writeBehindBatchSize maximum number of authorizations written per transaction
+ * @param writeBehindCapacity maximum number of authorizations waiting to be written; further
+ *        writers block until the queue drains
+ * @param metadataFormat encoding of the attribute, metadata and claims columns; both formats are
+ *        always readable
+ */
+@ConfigurationProperties("auth-server.token-store")
+public record TokenStoreProperties(@DefaultValue("false") boolean hotTierEnabled,
+    @DefaultValue("100000") long hotTierMaximumSize,
+    @DefaultValue("10m") Duration hotTierDefaultTimeToLive,
+    @DefaultValue("false") boolean writeBehind,
+    @DefaultValue("500") int writeBehindBatchSize,
+    @DefaultValue("10000") int writeBehindCapacity,
+    @DefaultValue("json") MetadataFormat metadataFormat) {
+
+  public enum MetadataFormat {
+    JSON, SMILE
+  }
+}
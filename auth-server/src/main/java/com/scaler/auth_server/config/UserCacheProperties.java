@@ -0,0 +1,16 @@
+package com.scaler.auth_server.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Bounds of the in-process user profile cache.
+ *
+ * @param maximumSize maximum number of profiles held
+ * @param timeToLive how long a resolved profile is served before it is reloaded
+ */
+@ConfigurationProperties("auth-server.user-cache")
+public record UserCacheProperties(@DefaultValue("100000") long maximumSize,
+    @DefaultValue("5m") Duration timeToLive) {
+}
@@ -0,0 +1,15 @@
+package com.scaler.auth_server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Source of the {@code /api/users/me} response.
+ *
+ * @param fromClaims build the response from the {@code sub}, {@code userId} and {@code name}
+ *        claims of the verified token, falling back to the user store when one is missing; a
+ *        renamed user sees the old name until their token is reissued
+ */
+@ConfigurationProperties("auth-server.user-info")
+public record UserInfoProperties(@DefaultValue("true") boolean fromClaims) {
+}
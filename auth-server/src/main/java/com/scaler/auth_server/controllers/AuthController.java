@@ -6,8 +6,10 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.JwsHeader;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
@@ -25,6 +27,9 @@ import com.scaler.auth_server.dtos.SuccessResponse;
 import com.scaler.auth_server.mappers.AppUserMapper;
 import com.scaler.auth_server.models.AppUser;
 import com.scaler.auth_server.services.IAppUserService;
+import com.scaler.auth_server.services.JwkSetService;
+import com.scaler.auth_server.services.LoginThrottleService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 
 
@@ -36,6 +41,8 @@ public class AuthController {
   private final IAppUserService appUserService;
   private final AuthenticationManager authenticationManager;
   private final JwtEncoder jwtEncoder;
+  private final JwkSetService jwkSetService;
+  private final LoginThrottleService loginThrottleService;
 
 
   @PostMapping("/register")
@@ -49,20 +56,35 @@ public class AuthController {
   }
 
   @PostMapping("/login")
-  public ResponseEntity<AppResponse<LoginResponseDto>> login(@RequestBody LoginRequestDto dto) {
-    Authentication authentication = authenticationManager
-        .authenticate(new UsernamePasswordAuthenticationToken(dto.email(), dto.password()));
+  public ResponseEntity<AppResponse<LoginResponseDto>> login(@RequestBody LoginRequestDto dto,
+      HttpServletRequest request) {
+    // Before authenticating, so throttled attempts cost neither a user lookup nor a hash
+    loginThrottleService.checkAllowed(dto.email(), request.getRemoteAddr());
+    Authentication authentication;
+    try {
+      authentication = authenticationManager
+          .authenticate(new UsernamePasswordAuthenticationToken(dto.email(), dto.password()));
+    } catch (BadCredentialsException ex) {
+      loginThrottleService.loginFailed(request.getRemoteAddr());
+      throw ex;
+    }
+    loginThrottleService.loginSucceeded(dto.email(), request.getRemoteAddr());
 
     AppUserDetails principal = (AppUserDetails) authentication.getPrincipal();
 
     Instant issuedAt = Instant.now();
     Instant expiresAt = issuedAt.plusSeconds(60 * 60); // 1 hour expiry
 
-    JwtClaimsSet claims = JwtClaimsSet.builder().subject(principal.getUsername()).issuedAt(issuedAt)
-        .expiresAt(expiresAt).claim("userId", principal.getId()).build();
+    JwtClaimsSet.Builder claimsBuilder = JwtClaimsSet.builder().subject(principal.getUsername())
+        .issuedAt(issuedAt).expiresAt(expiresAt).claim("userId", principal.getId());
+    if (principal.getName() != null) {
+      claimsBuilder.claim("name", principal.getName());
+    }
+    JwtClaimsSet claims = claimsBuilder.build();
 
 
-    String token = jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+    JwsHeader header = JwsHeader.with(jwkSetService.getSigningAlgorithm()).build();
+    String token = jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
 
     ResponseCookie cookie = ResponseCookie.from("auth_token", token).httpOnly(true).secure(true)
         .path("/").sameSite("Lax").maxAge(Duration.between(issuedAt, expiresAt)).build();
@@ -1,18 +1,35 @@
 package com.scaler.auth_server.controllers;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.scaler.auth_server.config.ClientRegistrationProperties;
 import com.scaler.auth_server.dtos.AppResponse;
+import com.scaler.auth_server.dtos.AuthorizationPageDto;
+import com.scaler.auth_server.dtos.ClientRegistrationResult;
 import com.scaler.auth_server.dtos.RegisterClientDto;
 import com.scaler.auth_server.dtos.RegisterClientResponseDto;
+import com.scaler.auth_server.dtos.RevocationResultDto;
 import com.scaler.auth_server.dtos.SuccessResponse;
 import com.scaler.auth_server.mappers.ClientMapper;
 import com.scaler.auth_server.models.Client;
+import com.scaler.auth_server.services.IAuthorizationManagementService;
 import com.scaler.auth_server.services.IClientService;
 import lombok.RequiredArgsConstructor;
+import tools.jackson.databind.ObjectMapper;
 
 
 @RestController
@@ -21,6 +38,9 @@ import lombok.RequiredArgsConstructor;
 public class ClientController {
 
   private final IClientService clientService;
+  private final IAuthorizationManagementService authorizationManagementService;
+  private final ClientRegistrationProperties clientRegistrationProperties;
+  private final ObjectMapper objectMapper;
 
   @PostMapping("/register")
   public ResponseEntity<AppResponse<RegisterClientResponseDto>> registerClient(
@@ -30,5 +50,52 @@ public class ClientController {
     return ResponseEntity.ok(new SuccessResponse<>("client registered successfully", responseDto));
   }
 
+  /**
+   * Registers many clients at once and streams one {@link ClientRegistrationResult} per line as
+   * the clients are stored.
+   */
+  @PostMapping(value = "/register/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> registerClients(
+      @RequestBody List<RegisterClientDto> registerClientDtos) {
+    if (registerClientDtos.size() > clientRegistrationProperties.maxBatchSize()) {
+      throw new ResponseStatusException(HttpStatus.CONTENT_TOO_LARGE,
+          "at most " + clientRegistrationProperties.maxBatchSize() + " clients per batch");
+    }
+    StreamingResponseBody body = outputStream -> clientService.registerClients(registerClientDtos,
+        result -> {
+          try {
+            outputStream.write(objectMapper.writeValueAsBytes(result));
+            outputStream.write('\n');
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        });
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
+  /**
+   * Lists the authorizations of the client. Like the revocation below, only open to a client
+   * credentials token of the client itself (see {@code SecurityConfig}).
+   */
+  @GetMapping("/{clientId}/authorizations")
+  public ResponseEntity<AppResponse<AuthorizationPageDto>> clientAuthorizations(
+      @PathVariable String clientId, @RequestParam(required = false) String after,
+      @RequestParam(required = false) Integer limit) {
+    AuthorizationPageDto page =
+        authorizationManagementService.listByClientId(clientId, after, limit);
+    return ResponseEntity.ok(new SuccessResponse<>("authorizations fetched", page));
+  }
+
+  /**
+   * Revokes every token issued to the client, e.g. after its secret was compromised.
+   */
+  @DeleteMapping("/{clientId}/authorizations")
+  public ResponseEntity<AppResponse<RevocationResultDto>> revokeClientAuthorizations(
+      @PathVariable String clientId) {
+    int revoked = authorizationManagementService.revokeByClientId(clientId);
+    return ResponseEntity
+        .ok(new SuccessResponse<>("authorizations revoked", new RevocationResultDto(revoked)));
+  }
+
 
 }
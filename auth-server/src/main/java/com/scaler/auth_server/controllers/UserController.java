@@ -3,14 +3,20 @@ package com.scaler.auth_server.controllers;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import com.scaler.auth_server.config.UserInfoProperties;
 import com.scaler.auth_server.dtos.AppResponse;
+import com.scaler.auth_server.dtos.AppUserProfile;
+import com.scaler.auth_server.dtos.AuthorizationPageDto;
+import com.scaler.auth_server.dtos.RevocationResultDto;
 import com.scaler.auth_server.dtos.SuccessResponse;
 import com.scaler.auth_server.dtos.UserInfoResponseDto;
-import com.scaler.auth_server.models.AppUser;
 import com.scaler.auth_server.services.IAppUserService;
+import com.scaler.auth_server.services.IAuthorizationManagementService;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -19,14 +25,52 @@ import lombok.RequiredArgsConstructor;
 public class UserController {
 
   private final IAppUserService appUserService;
+  private final UserInfoProperties userInfoProperties;
+  private final IAuthorizationManagementService authorizationManagementService;
 
   @GetMapping("/me")
   public ResponseEntity<AppResponse<UserInfoResponseDto>> me(@AuthenticationPrincipal Jwt jwt) {
-    String email = jwt.getSubject();
-    AppUser user = appUserService.getAppUserByEmail(email);
-    UserInfoResponseDto dto =
-        new UserInfoResponseDto(user.getId(), user.getName(), user.getEmail());
+    UserInfoResponseDto dto = userInfoProperties.fromClaims() ? fromClaims(jwt) : null;
+    if (dto == null) {
+      AppUserProfile user = appUserService.getAppUserProfileByEmail(jwt.getSubject());
+      dto = new UserInfoResponseDto(user.id(), user.name(), user.email());
+    }
     return ResponseEntity.ok(new SuccessResponse<>("user info fetched", dto));
   }
 
+  @GetMapping("/me/authorizations")
+  public ResponseEntity<AppResponse<AuthorizationPageDto>> myAuthorizations(
+      @AuthenticationPrincipal Jwt jwt, @RequestParam(required = false) String after,
+      @RequestParam(required = false) Integer limit) {
+    AuthorizationPageDto page =
+        authorizationManagementService.listByPrincipalName(jwt.getSubject(), after, limit);
+    return ResponseEntity.ok(new SuccessResponse<>("authorizations fetched", page));
+  }
+
+  /**
+   * Logs the user out everywhere by revoking every token issued to them, including the one
+   * authenticating this request. Only a token from {@code /api/auth/login} may do so, not one a
+   * client obtained on the user's behalf.
+   */
+  @DeleteMapping("/me/authorizations")
+  public ResponseEntity<AppResponse<RevocationResultDto>> revokeMyAuthorizations(
+      @AuthenticationPrincipal Jwt jwt) {
+    int revoked = authorizationManagementService.revokeByPrincipalName(jwt.getSubject());
+    return ResponseEntity
+        .ok(new SuccessResponse<>("authorizations revoked", new RevocationResultDto(revoked)));
+  }
+
+  /**
+   * Builds the response from the verified token alone, or returns {@code null} when the token
+   * lacks a claim, e.g. because it was issued before the claim was added.
+   */
+  private static UserInfoResponseDto fromClaims(Jwt jwt) {
+    Object userId = jwt.getClaim("userId");
+    String name = jwt.getClaimAsString("name");
+    if (!(userId instanceof Number id) || name == null || jwt.getSubject() == null) {
+      return null;
+    }
+    return new UserInfoResponseDto(id.longValue(), name, jwt.getSubject());
+  }
+
 }
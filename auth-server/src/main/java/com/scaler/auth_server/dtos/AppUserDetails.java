@@ -23,6 +23,10 @@ public class AppUserDetails implements UserDetails {
     return appUser.getId();
   }
 
+  public String getName() {
+    return appUser.getName();
+  }
+
   @Override
   public String getPassword() {
     return appUser.getPassword();
@@ -0,0 +1,7 @@
+package com.scaler.auth_server.dtos;
+
+/**
+ * The cacheable part of an {@code AppUser}; deliberately without the password hash.
+ */
+public record AppUserProfile(Long id, String name, String email) {
+}
@@ -0,0 +1,10 @@
+package com.scaler.auth_server.dtos;
+
+import java.util.List;
+
+/**
+ * One page of authorizations in id order; {@code next} is the cursor for the following page, or
+ * {@code null} on the last one.
+ */
+public record AuthorizationPageDto(List<AuthorizationSummaryDto> authorizations, String next) {
+}
@@ -0,0 +1,12 @@
+package com.scaler.auth_server.dtos;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Listing view of a stored authorization; token values are never exposed.
+ */
+public record AuthorizationSummaryDto(String id, String registeredClientId, String principalName,
+        String authorizationGrantType, Set<String> authorizedScopes, Instant accessTokenIssuedAt,
+        Instant expiresAt) {
+}
@@ -0,0 +1,17 @@
+package com.scaler.auth_server.dtos;
+
+/**
+ * Outcome of one entry of a batch client registration; {@code index} is the entry's position in
+ * the request.
+ */
+public record ClientRegistrationResult(int index, String status, RegisterClientResponseDto client,
+        String error) {
+
+  public static ClientRegistrationResult created(int index, RegisterClientResponseDto client) {
+    return new ClientRegistrationResult(index, "created", client, null);
+  }
+
+  public static ClientRegistrationResult failed(int index, String error) {
+    return new ClientRegistrationResult(index, "failed", null, error);
+  }
+}
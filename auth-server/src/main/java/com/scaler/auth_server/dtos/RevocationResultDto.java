@@ -0,0 +1,4 @@
+package com.scaler.auth_server.dtos;
+
+public record RevocationResultDto(int revoked) {
+}
@@ -0,0 +1,11 @@
+package com.scaler.auth_server.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ClientNotFoundException extends RuntimeException {
+  public ClientNotFoundException(String message) {
+    super(message);
+  }
+}
@@ -1,5 +1,6 @@
 package com.scaler.auth_server.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -18,4 +19,31 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(errorResponseDTO, HttpStatus.BAD_REQUEST);
   }
 
+  @ExceptionHandler(ClientNotFoundException.class)
+  public ResponseEntity<AppResponse<Void>> handleClientNotFoundException(
+      ClientNotFoundException exception, WebRequest webRequest) {
+    AppResponse<Void> errorResponseDTO = new ErrorResponse<>(exception.getMessage());
+    return new ResponseEntity<>(errorResponseDTO, HttpStatus.NOT_FOUND);
+  }
+
+  @ExceptionHandler(HashingCapacityExceededException.class)
+  public ResponseEntity<AppResponse<Void>> handleHashingCapacityExceededException(
+      HashingCapacityExceededException exception, WebRequest webRequest) {
+    AppResponse<Void> errorResponseDTO = new ErrorResponse<>(exception.getMessage());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER,
+            String.valueOf(Math.max(1, exception.getRetryAfter().toSeconds())))
+        .body(errorResponseDTO);
+  }
+
+  @ExceptionHandler(TooManyLoginAttemptsException.class)
+  public ResponseEntity<AppResponse<Void>> handleTooManyLoginAttemptsException(
+      TooManyLoginAttemptsException exception, WebRequest webRequest) {
+    AppResponse<Void> errorResponseDTO = new ErrorResponse<>(exception.getMessage());
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER,
+            String.valueOf(Math.max(1, exception.getRetryAfter().toSeconds())))
+        .body(errorResponseDTO);
+  }
+
 }
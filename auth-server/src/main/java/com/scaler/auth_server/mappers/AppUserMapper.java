@@ -1,5 +1,6 @@
 package com.scaler.auth_server.mappers;
 
+import com.scaler.auth_server.dtos.AppUserProfile;
 import com.scaler.auth_server.dtos.RegisterUserDto;
 import com.scaler.auth_server.dtos.RegisterUserResDto;
 import com.scaler.auth_server.models.AppUser;
@@ -18,4 +19,8 @@ public final class AppUserMapper {
   public static RegisterUserResDto from(AppUser appUser) {
     return new RegisterUserResDto(appUser.getId(), appUser.getName(), appUser.getEmail());
   }
+
+  public static AppUserProfile toProfile(AppUser appUser) {
+    return new AppUserProfile(appUser.getId(), appUser.getName(), appUser.getEmail());
+  }
 }
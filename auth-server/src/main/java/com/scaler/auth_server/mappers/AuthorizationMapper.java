@@ -0,0 +1,18 @@
+package com.scaler.auth_server.mappers;
+
+import org.springframework.util.StringUtils;
+import com.scaler.auth_server.dtos.AuthorizationSummaryDto;
+import com.scaler.auth_server.repositories.AuthorizationRepository.AuthorizationSummary;
+
+public final class AuthorizationMapper {
+
+  private AuthorizationMapper() {}
+
+  public static AuthorizationSummaryDto toSummary(AuthorizationSummary authorization) {
+    return new AuthorizationSummaryDto(authorization.getId(),
+        authorization.getRegisteredClientId(), authorization.getPrincipalName(),
+        authorization.getAuthorizationGrantType(),
+        StringUtils.commaDelimitedListToSet(authorization.getAuthorizedScopes()),
+        authorization.getAccessTokenIssuedAt(), authorization.getExpiresAt());
+  }
+}
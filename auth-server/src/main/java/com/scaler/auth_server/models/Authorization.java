@@ -1,10 +1,15 @@
 package com.scaler.auth_server.models;
 
 import java.time.Instant;
+import org.springframework.data.domain.Persistable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -12,7 +17,7 @@ import lombok.Setter;
 @Setter
 @Entity
 @Table(name = "`authorization`")
-public class Authorization {
+public class Authorization implements Persistable<String> {
   @Id
   @Column
   private String id;
@@ -71,4 +76,31 @@ public class Authorization {
   private Instant deviceCodeExpiresAt;
   @Column(length = 2000)
   private String deviceCodeMetadata;
+
+  /** Latest expiry of any token held, used to reap fully expired authorizations. */
+  private Instant expiresAt;
+
+  /**
+   * Set for authorizations known not to exist yet, so they are inserted without the
+   * read-before-write of a merge.
+   */
+  @Transient
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private boolean newEntity;
+
+  public void markNew() {
+    this.newEntity = true;
+  }
+
+  @Override
+  public boolean isNew() {
+    return newEntity;
+  }
+
+  @PostPersist
+  @PostLoad
+  void markNotNew() {
+    this.newEntity = false;
+  }
 }
@@ -2,7 +2,6 @@ package com.scaler.auth_server.models;
 
 import java.io.Serializable;
 import java.util.Objects;
-import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
@@ -21,8 +20,7 @@ public class AuthorizationConsent {
   private String registeredClientId;
   @Id
   private String principalName;
-  @Column(length = 1000)
-  private String authorities;
+  private String[] authorities;
 
   @Getter
   @Setter
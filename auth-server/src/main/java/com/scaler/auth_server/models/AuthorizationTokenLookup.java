@@ -0,0 +1,37 @@
+package com.scaler.auth_server.models;
+
+import org.springframework.data.domain.Persistable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Index row mapping the SHA-256 digest of a token value to the authorization holding it. Rows are
+ * only ever inserted or deleted, never updated in place.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "authorization_token_lookup")
+public class AuthorizationTokenLookup implements Persistable<String> {
+  @Id
+  @Column(length = 64)
+  private String tokenDigest;
+  @Column(length = 32, nullable = false)
+  private String tokenType;
+  @Column(nullable = false)
+  private String authorizationId;
+
+  @Override
+  public String getId() {
+    return tokenDigest;
+  }
+
+  @Override
+  public boolean isNew() {
+    return true;
+  }
+}
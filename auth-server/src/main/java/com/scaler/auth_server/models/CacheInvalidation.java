@@ -0,0 +1,25 @@
+package com.scaler.auth_server.models;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "cache_invalidation")
+// Filled in by the column default, so every node's rows carry the database clock
+@AttributeOverride(name = "createdAt", column = @Column(name = "created_at", insertable = false,
+    updatable = false, columnDefinition = "timestamp(6) default localtimestamp"))
+public class CacheInvalidation extends BaseModel {
+
+  @Column(name = "cache_name", nullable = false, length = 100)
+  private String cacheName;
+
+  @Column(name = "cache_key", nullable = false, length = 500)
+  private String cacheKey;
+
+}
@@ -1,11 +1,15 @@
 package com.scaler.auth_server.models;
 
 import java.time.Instant;
+import org.springframework.data.domain.Persistable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -13,7 +17,7 @@ import lombok.Setter;
 @Setter
 @Entity
 @Table(name = "`client`")
-public class Client {
+public class Client implements Persistable<String> {
   @Id
   private String id;
   private String clientId;
@@ -29,6 +33,15 @@ public class Client {
   @Transient
   private String plainSecret;
 
+  /**
+   * Set for clients known not to exist yet, so they are inserted without the read-before-write of
+   * a merge.
+   */
+  @Transient
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private boolean newEntity;
+
   @Column(length = 1000)
   private String clientAuthenticationMethods;
 
@@ -49,4 +62,19 @@ public class Client {
 
   @Column(length = 2000)
   private String tokenSettings;
+
+  public void markNew() {
+    this.newEntity = true;
+  }
+
+  @Override
+  public boolean isNew() {
+    return newEntity;
+  }
+
+  @PostPersist
+  @PostLoad
+  void markNotNew() {
+    this.newEntity = false;
+  }
 }
@@ -0,0 +1,47 @@
+package com.scaler.auth_server.models;
+
+import java.time.Instant;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "jwk_key")
+public class JwkKey {
+  @Id
+  @Column(length = 100)
+  private String kid;
+  @Column(length = 20, nullable = false)
+  private String algorithm;
+
+  /**
+   * The full JWK including private parameters, as JSON or, when an encryption key is configured,
+   * as a compact JWE.
+   */
+  @Column(length = 10000, nullable = false)
+  private String jwk;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 20, nullable = false)
+  private Status status;
+  @Column(nullable = false)
+  private Instant createdAt;
+  private Instant activatedAt;
+  private Instant retiredAt;
+
+  public enum Status {
+    /** Published for verification, not yet used for signing. */
+    NEXT,
+    /** Used for signing. */
+    ACTIVE,
+    /** Kept for verification of tokens it signed. */
+    RETIRED
+  }
+}
@@ -0,0 +1,28 @@
+package com.scaler.auth_server.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A token bucket shared by all nodes. Times are epoch milliseconds so the refill can be computed
+ * in the upsert itself.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "login_throttle_bucket")
+public class LoginThrottleBucket {
+  @Id
+  @Column(name = "bucket_key", length = 320)
+  private String bucketKey;
+  @Column(nullable = false)
+  private double tokens;
+  @Column(name = "refilled_at", nullable = false)
+  private long refilledAt;
+  @Column(name = "expires_at", nullable = false)
+  private long expiresAt;
+}
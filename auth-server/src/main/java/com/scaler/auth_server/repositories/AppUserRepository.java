@@ -1,7 +1,9 @@
 package com.scaler.auth_server.repositories;
 
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import com.scaler.auth_server.models.AppUser;
 
@@ -12,4 +14,29 @@ public interface AppUserRepository extends JpaRepository<AppUser, Long> {
 
   Optional<AppUser> findByEmail(String email);
 
+  /**
+   * Number of users per hash scheme and parameters (salt and hash stripped), as derived by
+   * {@code CalibratedPasswordEncoder.hashParameters}.
+   */
+  @Query(value = """
+      select case
+          when password like '{bcrypt}%'
+            then substring(password from '^(\\{[^}]*\\}(\\$[^$]*){2}\\$)')
+          when password like '{argon2}%'
+            then substring(password from '^(\\{[^}]*\\}(\\$[^$]*){3}\\$)')
+          else substring(password from '^(\\{[^}]*\\})')
+        end as parameters,
+        count(*) as users
+      from app_user
+      group by 1
+      order by 2 desc
+      """, nativeQuery = true)
+  List<HashParameterCount> countByHashParameters();
+
+  interface HashParameterCount {
+    String getParameters();
+
+    long getUsers();
+  }
+
 }
@@ -2,7 +2,11 @@ package com.scaler.auth_server.repositories;
 
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import com.scaler.auth_server.models.AuthorizationConsent;
 
 @Repository
@@ -11,6 +15,12 @@ public interface AuthorizationConsentRepository
   Optional<AuthorizationConsent> findByRegisteredClientIdAndPrincipalName(String registeredClientId,
       String principalName);
 
-  void deleteByRegisteredClientIdAndPrincipalName(String registeredClientId, String principalName);
+  @Transactional
+  @Modifying
+  @Query("delete from AuthorizationConsent c where c.registeredClientId = :registeredClientId"
+      + " and c.principalName = :principalName")
+  int deleteByRegisteredClientIdAndPrincipalName(
+      @Param("registeredClientId") String registeredClientId,
+      @Param("principalName") String principalName);
 
 }
@@ -1,7 +1,12 @@
 package com.scaler.auth_server.repositories;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,24 +14,79 @@ import com.scaler.auth_server.models.Authorization;
 
 @Repository
 public interface AuthorizationRepository extends JpaRepository<Authorization, String> {
-  Optional<Authorization> findByState(String state);
 
-  Optional<Authorization> findByAuthorizationCodeValue(String authorizationCode);
+  @Query("select a from Authorization a where a.id = (select t.authorizationId"
+      + " from AuthorizationTokenLookup t where t.tokenDigest = :tokenDigest)")
+  Optional<Authorization> findByTokenDigest(@Param("tokenDigest") String tokenDigest);
 
-  Optional<Authorization> findByAccessTokenValue(String accessToken);
+  @Query("select a from Authorization a where a.id = (select t.authorizationId"
+      + " from AuthorizationTokenLookup t where t.tokenDigest = :tokenDigest"
+      + " and t.tokenType = :tokenType)")
+  Optional<Authorization> findByTokenDigestAndTokenType(@Param("tokenDigest") String tokenDigest,
+      @Param("tokenType") String tokenType);
 
-  Optional<Authorization> findByRefreshTokenValue(String refreshToken);
+  @Query("select a.id as id, a.expiresAt as expiresAt from Authorization a"
+      + " where a.expiresAt < :expiredBefore and (a.expiresAt > :afterExpiresAt"
+      + " or (a.expiresAt = :afterExpiresAt and a.id > :afterId)) order by a.expiresAt, a.id")
+  List<ExpiredAuthorization> findExpired(@Param("expiredBefore") Instant expiredBefore,
+      @Param("afterExpiresAt") Instant afterExpiresAt, @Param("afterId") String afterId,
+      Limit limit);
 
-  Optional<Authorization> findByOidcIdTokenValue(String idToken);
+  @Modifying
+  @Query("delete from Authorization a where a.id in :ids and a.expiresAt < :expiredBefore")
+  int deleteExpiredByIdIn(@Param("ids") Collection<String> ids,
+      @Param("expiredBefore") Instant expiredBefore);
 
-  Optional<Authorization> findByUserCodeValue(String userCode);
+  @Query("select a.id as id, a.registeredClientId as registeredClientId,"
+      + " a.principalName as principalName, a.authorizationGrantType as authorizationGrantType,"
+      + " a.authorizedScopes as authorizedScopes, a.accessTokenIssuedAt as accessTokenIssuedAt,"
+      + " a.expiresAt as expiresAt from Authorization a"
+      + " where a.principalName = :principalName and a.id > :afterId order by a.id")
+  List<AuthorizationSummary> findByPrincipalName(@Param("principalName") String principalName,
+      @Param("afterId") String afterId, Limit limit);
 
-  Optional<Authorization> findByDeviceCodeValue(String deviceCode);
+  @Query("select a.id as id, a.registeredClientId as registeredClientId,"
+      + " a.principalName as principalName, a.authorizationGrantType as authorizationGrantType,"
+      + " a.authorizedScopes as authorizedScopes, a.accessTokenIssuedAt as accessTokenIssuedAt,"
+      + " a.expiresAt as expiresAt from Authorization a"
+      + " where a.registeredClientId = :registeredClientId and a.id > :afterId order by a.id")
+  List<AuthorizationSummary> findByRegisteredClientId(
+      @Param("registeredClientId") String registeredClientId, @Param("afterId") String afterId,
+      Limit limit);
 
-  @Query("select a from Authorization a where a.state = :token"
-      + " or a.authorizationCodeValue = :token" + " or a.accessTokenValue = :token"
-      + " or a.refreshTokenValue = :token" + " or a.oidcIdTokenValue = :token"
-      + " or a.userCodeValue = :token" + " or a.deviceCodeValue = :token")
-  Optional<Authorization> findByStateOrAuthorizationCodeValueOrAccessTokenValueOrRefreshTokenValueOrOidcIdTokenValueOrUserCodeValueOrDeviceCodeValue(
-      @Param("token") String token);
+  @Query("select a.id from Authorization a"
+      + " where a.principalName = :principalName and a.id > :afterId order by a.id")
+  List<String> findIdsByPrincipalName(@Param("principalName") String principalName,
+      @Param("afterId") String afterId, Limit limit);
+
+  @Query("select a.id from Authorization a"
+      + " where a.registeredClientId = :registeredClientId and a.id > :afterId order by a.id")
+  List<String> findIdsByRegisteredClientId(@Param("registeredClientId") String registeredClientId,
+      @Param("afterId") String afterId, Limit limit);
+
+  @Modifying
+  @Query("delete from Authorization a where a.id in :ids")
+  int deleteByIdIn(@Param("ids") Collection<String> ids);
+
+  interface AuthorizationSummary {
+    String getId();
+
+    String getRegisteredClientId();
+
+    String getPrincipalName();
+
+    String getAuthorizationGrantType();
+
+    String getAuthorizedScopes();
+
+    Instant getAccessTokenIssuedAt();
+
+    Instant getExpiresAt();
+  }
+
+  interface ExpiredAuthorization {
+    String getId();
+
+    Instant getExpiresAt();
+  }
 }
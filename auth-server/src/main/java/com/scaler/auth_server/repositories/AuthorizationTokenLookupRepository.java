@@ -0,0 +1,29 @@
+package com.scaler.auth_server.repositories;
+
+import java.util.Collection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.scaler.auth_server.models.AuthorizationTokenLookup;
+
+@Repository
+public interface AuthorizationTokenLookupRepository
+    extends JpaRepository<AuthorizationTokenLookup, String> {
+
+  @Modifying
+  @Query("delete from AuthorizationTokenLookup t where t.authorizationId = :authorizationId")
+  void deleteByAuthorizationId(@Param("authorizationId") String authorizationId);
+
+  @Modifying
+  @Query("delete from AuthorizationTokenLookup t where t.authorizationId in :authorizationIds")
+  void deleteByAuthorizationIdIn(@Param("authorizationIds") Collection<String> authorizationIds);
+
+  @Modifying
+  @Query("delete from AuthorizationTokenLookup t where t.authorizationId in :authorizationIds"
+      + " and not exists (select 1 from Authorization a where a.id = t.authorizationId)")
+  int deleteOrphansByAuthorizationIdIn(
+      @Param("authorizationIds") Collection<String> authorizationIds);
+
+}
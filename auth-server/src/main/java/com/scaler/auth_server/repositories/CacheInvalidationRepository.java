@@ -0,0 +1,34 @@
+package com.scaler.auth_server.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import com.scaler.auth_server.models.CacheInvalidation;
+
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+  List<CacheInvalidation> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+  @Query("select max(c.id) from CacheInvalidation c")
+  Optional<Long> findMaxId();
+
+  /**
+   * The current time of the database clock, which stamps {@code created_at}.
+   */
+  @Query("select local datetime")
+  LocalDateTime findDatabaseTime();
+
+  @Transactional
+  @Modifying
+  @Query("delete from CacheInvalidation c where c.createdAt < :cutoff")
+  int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+}
@@ -0,0 +1,27 @@
+package com.scaler.auth_server.repositories;
+
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.scaler.auth_server.models.JwkKey;
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface JwkKeyRepository extends JpaRepository<JwkKey, String> {
+
+  List<JwkKey> findAllByOrderByCreatedAtDesc();
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  List<JwkKey> findByStatusOrderByCreatedAtDesc(JwkKey.Status status);
+
+  @Modifying
+  @Query("delete from JwkKey k where k.status = :status and k.retiredAt < :retiredBefore")
+  int deleteByStatusAndRetiredAtBefore(@Param("status") JwkKey.Status status,
+      @Param("retiredBefore") Instant retiredBefore);
+
+}
@@ -0,0 +1,48 @@
+package com.scaler.auth_server.repositories;
+
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import com.scaler.auth_server.models.LoginThrottleBucket;
+
+@Repository
+public interface LoginThrottleBucketRepository extends JpaRepository<LoginThrottleBucket, String> {
+
+  /**
+   * Refills the bucket and takes a token in one statement, creating a full bucket first when
+   * there is none. Returns the tokens left, or nothing when the bucket is empty; an empty bucket
+   * is left untouched so the time since its last refill keeps counting. PostgreSQL only.
+   */
+  @Transactional
+  @Query(value = """
+      insert into login_throttle_bucket as b (bucket_key, tokens, refilled_at, expires_at)
+      values (:key, :capacity - 1, :now, :expiresAt)
+      on conflict (bucket_key) do update
+      set tokens = least(:capacity, b.tokens + (:now - b.refilled_at) / :refillMillis) - 1,
+          refilled_at = :now,
+          expires_at = :expiresAt
+      where least(:capacity, b.tokens + (:now - b.refilled_at) / :refillMillis) >= 1
+      returning tokens
+      """, nativeQuery = true)
+  Optional<Double> tryConsume(@Param("key") String key, @Param("capacity") double capacity,
+      @Param("refillMillis") double refillMillis, @Param("now") long now,
+      @Param("expiresAt") long expiresAt);
+
+  @Transactional
+  @Modifying
+  @Query("""
+      update LoginThrottleBucket b set b.tokens = least(b.tokens + 1, :capacity)
+      where b.bucketKey = :key
+      """)
+  int refund(@Param("key") String key, @Param("capacity") double capacity);
+
+  @Transactional
+  @Modifying
+  @Query("delete from LoginThrottleBucket b where b.expiresAt < :now")
+  int deleteExpired(@Param("now") long now);
+
+}
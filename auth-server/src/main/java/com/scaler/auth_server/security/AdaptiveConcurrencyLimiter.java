@@ -0,0 +1,165 @@
+package com.scaler.auth_server.security;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import org.springframework.util.Assert;
+import com.scaler.auth_server.config.ConcurrencyLimitProperties;
+
+/**
+ * A concurrency limit that follows observed latency (a gradient variant of AIMD). Latencies are
+ * averaged per sample window and compared with a slowly moving long-term average: while the
+ * window stays within {@code rttTolerance} of it the limit grows by about its square root, beyond
+ * that it shrinks in proportion to the slowdown, and a window with an overload response cuts it
+ * by {@code backoffRatio}. Windows in which fewer than half of the permits were used leave the
+ * limit alone, since their latency says nothing about the limit.
+ *
+ * <p>Acquiring and releasing are lock-free; the limit is recomputed by whichever releasing
+ * thread first sees the window end.
+ */
+public class AdaptiveConcurrencyLimiter {
+  private static final int MIN_WINDOW_SAMPLES = 10;
+  // Windows the long-term latency average spans
+  private static final int LONG_WINDOWS = 100;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final long windowNanos;
+  private final double rttTolerance;
+  private final double smoothing;
+  private final double backoffRatio;
+  private final LongSupplier nanoTime;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final LongAdder windowRttNanos = new LongAdder();
+  private final LongAdder windowSamples = new LongAdder();
+  private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+  private final ReentrantLock updateLock = new ReentrantLock();
+  private volatile boolean windowOverloaded;
+  private volatile long windowEndsAt;
+  private volatile int limit;
+  // Guarded by the update lock
+  private double estimatedLimit;
+  private double longRttNanos;
+
+  public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+    this(properties, System::nanoTime);
+  }
+
+  /**
+   * @param nanoTime source of {@link System#nanoTime}-like readings that sample windows are timed
+   *        with
+   */
+  AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, LongSupplier nanoTime) {
+    Assert.notNull(properties, "properties cannot be null");
+    Assert.notNull(nanoTime, "nanoTime cannot be null");
+    Assert.isTrue(properties.minLimit() > 0, "minLimit must be positive");
+    Assert.isTrue(properties.minLimit() <= properties.initialLimit()
+        && properties.initialLimit() <= properties.maxLimit(),
+        "initialLimit must lie between minLimit and maxLimit");
+    this.minLimit = properties.minLimit();
+    this.maxLimit = properties.maxLimit();
+    this.windowNanos = properties.sampleWindow().toNanos();
+    this.rttTolerance = properties.rttTolerance();
+    this.smoothing = properties.smoothing();
+    this.backoffRatio = properties.backoffRatio();
+    this.nanoTime = nanoTime;
+    this.estimatedLimit = properties.initialLimit();
+    this.limit = properties.initialLimit();
+    this.windowEndsAt = nanoTime.getAsLong() + this.windowNanos;
+  }
+
+  public int getLimit() {
+    return this.limit;
+  }
+
+  public int getInFlight() {
+    return this.inFlight.get();
+  }
+
+  /**
+   * Takes a permit unless the limit is reached. A taken permit must be given back with
+   * {@link #release}.
+   */
+  public boolean tryAcquire() {
+    while (true) {
+      int current = this.inFlight.get();
+      if (current >= this.limit) {
+        return false;
+      }
+      if (this.inFlight.compareAndSet(current, current + 1)) {
+        this.windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Gives back a permit and records how the request went.
+   *
+   * @param rttNanos time the request held the permit
+   * @param overloaded whether a downstream resource rejected or failed the request
+   */
+  public void release(long rttNanos, boolean overloaded) {
+    this.inFlight.decrementAndGet();
+    if (overloaded) {
+      this.windowOverloaded = true;
+    } else {
+      this.windowRttNanos.add(rttNanos);
+      this.windowSamples.increment();
+    }
+    long now = this.nanoTime.getAsLong();
+    if (now - this.windowEndsAt >= 0 && this.updateLock.tryLock()) {
+      try {
+        if (now - this.windowEndsAt >= 0) {
+          update(now);
+        }
+      } finally {
+        this.updateLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Gives back a permit without recording a sample, for a request turned away before it did the
+   * endpoint's work (e.g. by the login throttle). Its latency says nothing about the endpoint's
+   * capacity, and counting it would pull the window average down just when the endpoint is busiest.
+   */
+  public void releaseUnsampled() {
+    this.inFlight.decrementAndGet();
+  }
+
+  private void update(long now) {
+    boolean overloaded = this.windowOverloaded;
+    if (!overloaded && this.windowSamples.sum() < MIN_WINDOW_SAMPLES) {
+      return; // too few samples to judge, the window grows until there are enough
+    }
+    long samples = this.windowSamples.sumThenReset();
+    long rttNanos = this.windowRttNanos.sumThenReset();
+    int maxInFlight = this.windowMaxInFlight.getAndSet(this.inFlight.get());
+    this.windowOverloaded = false;
+    this.windowEndsAt = now + this.windowNanos;
+
+    double next;
+    if (overloaded) {
+      next = this.estimatedLimit * this.backoffRatio;
+    } else {
+      double shortRttNanos = (double) rttNanos / samples;
+      this.longRttNanos = this.longRttNanos == 0 ? shortRttNanos
+          : this.longRttNanos + (shortRttNanos - this.longRttNanos) / LONG_WINDOWS;
+      if (this.longRttNanos > 2 * shortRttNanos) {
+        // Latency dropped for good (e.g. after a slow start); let the average catch up
+        this.longRttNanos *= 0.95;
+      }
+      if (maxInFlight < this.estimatedLimit / 2) {
+        return;
+      }
+      double gradient =
+          Math.clamp(this.rttTolerance * this.longRttNanos / shortRttNanos, 0.5, 1.0);
+      double target = this.estimatedLimit * gradient + Math.sqrt(this.estimatedLimit);
+      next = this.estimatedLimit * (1 - this.smoothing) + target * this.smoothing;
+    }
+    this.estimatedLimit = Math.clamp(next, this.minLimit, this.maxLimit);
+    this.limit = (int) this.estimatedLimit;
+  }
+}
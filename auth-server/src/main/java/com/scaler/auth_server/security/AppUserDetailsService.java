@@ -1,6 +1,7 @@
 package com.scaler.auth_server.security;
 
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -11,7 +12,7 @@ import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
-public class AppUserDetailsService implements UserDetailsService {
+public class AppUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
   private final IAppUserService appUserService;
 
@@ -20,5 +21,11 @@ public class AppUserDetailsService implements UserDetailsService {
     AppUser appUser = appUserService.getAppUserByEmail(username);
     return new AppUserDetails(appUser);
   }
+
+  @Override
+  public UserDetails updatePassword(UserDetails user, String newPassword) {
+    AppUser appUser = appUserService.updatePassword(user.getUsername(), newPassword);
+    return new AppUserDetails(appUser);
+  }
 }
 
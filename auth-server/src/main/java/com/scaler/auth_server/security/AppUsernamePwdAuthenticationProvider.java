@@ -6,25 +6,62 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import com.scaler.auth_server.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class AppUsernamePwdAuthenticationProvider implements AuthenticationProvider {
 
   private final UserDetailsService userDetailsService;
   private final PasswordEncoder passwordEncoder;
+  private final UserDetailsPasswordService userDetailsPasswordService;
+  private final MeterRegistry meterRegistry;
 
+  /**
+   * Records every attempt in {@code auth.login.authenticate}, tagged by outcome, on top of the
+   * hashing timers of the password encoder.
+   */
   @Override
   public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = "error";
+    try {
+      Authentication result = doAuthenticate(authentication);
+      outcome = "success";
+      return result;
+    } catch (UsernameNotFoundException ex) {
+      outcome = "unknown_user";
+      throw ex;
+    } catch (BadCredentialsException ex) {
+      outcome = "bad_credentials";
+      throw ex;
+    } catch (HashingCapacityExceededException ex) {
+      outcome = "rejected";
+      throw ex;
+    } finally {
+      sample.stop(Timer.builder("auth.login.authenticate")
+          .description("Latency of username and password authentication")
+          .tags("outcome", outcome).register(meterRegistry));
+    }
+  }
+
+  private Authentication doAuthenticate(Authentication authentication) {
     String username = authentication.getName();
     String password = authentication.getCredentials().toString();
     UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
     if (passwordEncoder.matches(password, userDetails.getPassword())) {
+      userDetails = upgradeEncodingIfNecessary(userDetails, password);
       return new UsernamePasswordAuthenticationToken(userDetails, password,
           userDetails.getAuthorities());
     } else {
@@ -33,6 +70,21 @@ public class AppUsernamePwdAuthenticationProvider implements AuthenticationProvi
 
   }
 
+  private UserDetails upgradeEncodingIfNecessary(UserDetails userDetails, String password) {
+    if (!passwordEncoder.upgradeEncoding(userDetails.getPassword())) {
+      return userDetails;
+    }
+    try {
+      String upgradedPassword = passwordEncoder.encode(password);
+      return userDetailsPasswordService.updatePassword(userDetails, upgradedPassword);
+    } catch (HashingCapacityExceededException ex) {
+      // The login itself succeeded; upgrade at a later login
+      log.debug("Skipping password upgrade for {}: {}", userDetails.getUsername(),
+          ex.getMessage());
+      return userDetails;
+    }
+  }
+
   @Override
   public boolean supports(Class<?> authentication) {
     return (UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication));
@@ -0,0 +1,107 @@
+package com.scaler.auth_server.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.Assert;
+import com.scaler.auth_server.config.PasswordHashingProperties;
+import com.scaler.auth_server.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link PasswordEncoder} that runs the CPU-bound {@code encode} and {@code matches} of its
+ * delegate on a fixed pool of platform threads with a bounded queue. Callers block until their
+ * hash completes, which is cheap on virtual request threads, and fail fast with
+ * {@link HashingCapacityExceededException} once the queue is full, so a login burst cannot occupy
+ * every request thread.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+  private final PasswordEncoder delegate;
+  private final PasswordHashingProperties hashingProperties;
+  private final ThreadPoolExecutor executor;
+  private final MeterRegistry meterRegistry;
+
+  public BoundedPasswordEncoder(PasswordEncoder delegate,
+      PasswordHashingProperties hashingProperties, MeterRegistry meterRegistry) {
+    Assert.notNull(delegate, "delegate cannot be null");
+    Assert.notNull(hashingProperties, "hashingProperties cannot be null");
+    Assert.notNull(meterRegistry, "meterRegistry cannot be null");
+    this.delegate = delegate;
+    this.hashingProperties = hashingProperties;
+    this.meterRegistry = meterRegistry;
+    int threads = hashingProperties.threads() > 0 ? hashingProperties.threads()
+        : Runtime.getRuntime().availableProcessors();
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(hashingProperties.queueCapacity()),
+        Thread.ofPlatform().name("password-hashing-", 0).daemon(true).factory(),
+        new ThreadPoolExecutor.AbortPolicy());
+    meterRegistry.gauge("auth.password.hash.queue.size", this.executor,
+        executor -> executor.getQueue().size());
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return execute("encode", () -> this.delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return execute("matches", () -> this.delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return this.delegate.upgradeEncoding(encodedPassword);
+  }
+
+  @Override
+  public void close() {
+    this.executor.shutdown();
+  }
+
+  private <T> T execute(String operation, Callable<T> hash) {
+    long submittedAt = System.nanoTime();
+    Future<T> future;
+    try {
+      future = this.executor.submit(() -> {
+        long startedAt = System.nanoTime();
+        timer("auth.password.hash.queue.wait", "Time spent waiting for a hashing thread",
+            operation).record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+        try {
+          return hash.call();
+        } finally {
+          timer("auth.password.hash.duration", "Time spent hashing", operation)
+              .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+      });
+    } catch (RejectedExecutionException ex) {
+      this.meterRegistry.counter("auth.password.hash.rejected", "operation", operation)
+          .increment();
+      throw new HashingCapacityExceededException("Too many concurrent password operations",
+          this.hashingProperties.retryAfter());
+    }
+    try {
+      return future.get();
+    } catch (InterruptedException ex) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for password hashing", ex);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Password hashing failed", ex.getCause());
+    }
+  }
+
+  private Timer timer(String name, String description, String operation) {
+    return Timer.builder(name).description(description).tag("operation", operation)
+        .register(this.meterRegistry);
+  }
+}
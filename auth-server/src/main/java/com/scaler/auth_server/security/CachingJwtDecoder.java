@@ -0,0 +1,86 @@
+package com.scaler.auth_server.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.springframework.context.ApplicationListener;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.util.Assert;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.scaler.auth_server.services.JwkSetChangedEvent;
+import com.scaler.auth_server.utils.TokenDigests;
+
+/**
+ * {@link JwtDecoder} that remembers tokens the delegate has already verified, keyed by the SHA-256
+ * digest of the token value. An entry expires at the token's {@code exp} or after
+ * {@code maximumTimeToLive}, whichever comes first, and the whole cache is dropped when the
+ * signing keys change. Tokens the delegate rejects are never cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder, ApplicationListener<JwkSetChangedEvent> {
+  private final JwtDecoder delegate;
+  private final Cache<String, Jwt> verifiedTokens;
+
+  public CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Duration maximumTimeToLive) {
+    Assert.notNull(delegate, "delegate cannot be null");
+    Assert.notNull(maximumTimeToLive, "maximumTimeToLive cannot be null");
+    this.delegate = delegate;
+    this.verifiedTokens = Caffeine.newBuilder().maximumSize(maximumSize)
+        .expireAfter(new VerifiedTokenExpiry(maximumTimeToLive)).recordStats().build();
+  }
+
+  public Cache<String, Jwt> getVerifiedTokens() {
+    return this.verifiedTokens;
+  }
+
+  @Override
+  public Jwt decode(String token) throws JwtException {
+    String digest = TokenDigests.sha256Hex(token);
+    Jwt jwt = this.verifiedTokens.getIfPresent(digest);
+    if (jwt != null) {
+      return jwt;
+    }
+    jwt = this.delegate.decode(token);
+    this.verifiedTokens.put(digest, jwt);
+    return jwt;
+  }
+
+  @Override
+  public void onApplicationEvent(JwkSetChangedEvent event) {
+    this.verifiedTokens.invalidateAll();
+  }
+
+  private static final class VerifiedTokenExpiry implements Expiry<String, Jwt> {
+    private final Duration maximumTimeToLive;
+
+    private VerifiedTokenExpiry(Duration maximumTimeToLive) {
+      this.maximumTimeToLive = maximumTimeToLive;
+    }
+
+    @Override
+    public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+      Instant expiresAt = jwt.getExpiresAt();
+      if (expiresAt == null) {
+        return this.maximumTimeToLive.toNanos();
+      }
+      Duration remaining = Duration.between(Instant.now(), expiresAt);
+      if (remaining.isNegative()) {
+        return 0;
+      }
+      return Math.min(remaining.toNanos(), this.maximumTimeToLive.toNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, Jwt jwt, long currentTime,
+        long currentDuration) {
+      return expireAfterCreate(key, jwt, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
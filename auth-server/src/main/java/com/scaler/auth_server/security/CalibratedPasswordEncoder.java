@@ -0,0 +1,181 @@
+package com.scaler.auth_server.security;
+
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.Assert;
+import com.scaler.auth_server.config.PasswordHashingProperties;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link DelegatingPasswordEncoder} with the configured scheme and work factor. Both schemes
+ * remain verifiable, and {@link #upgradeEncoding} reports hashes of another scheme or of a lower
+ * work factor, so they are re-encoded at the next successful login. Stronger hashes are kept: the
+ * work factor is shared configuration rather than measured per node, so replicas agree on it and
+ * a login never weakens a hash. Startup calibration, when enabled, only logs the work factor that
+ * would meet the target hash time on this machine.
+ */
+@Slf4j
+public class CalibratedPasswordEncoder implements PasswordEncoder {
+  static final int MIN_BCRYPT_STRENGTH = 10;
+  static final int MAX_BCRYPT_STRENGTH = 16;
+  static final int ARGON2_SALT_LENGTH = 16;
+  static final int ARGON2_HASH_LENGTH = 32;
+  static final int ARGON2_PARALLELISM = 1;
+  static final int ARGON2_MEMORY_KIB = 19 * 1024;
+  static final int MIN_ARGON2_ITERATIONS = 2;
+  static final int MAX_ARGON2_ITERATIONS = 10;
+  private static final String SAMPLE_PASSWORD = "calibration-sample";
+
+  private final DelegatingPasswordEncoder delegate;
+  private final String idForEncode;
+  private final int bcryptStrength;
+  private final int argon2Iterations;
+  private final String hashParameters;
+
+  private CalibratedPasswordEncoder(String idForEncode, int bcryptStrength,
+      int argon2Iterations) {
+    this.delegate = new DelegatingPasswordEncoder(idForEncode, Map.of("bcrypt",
+        new BCryptPasswordEncoder(bcryptStrength), "argon2", newArgon2(argon2Iterations)));
+    this.idForEncode = "{" + idForEncode + "}";
+    this.bcryptStrength = bcryptStrength;
+    this.argon2Iterations = argon2Iterations;
+    this.hashParameters = hashParameters(this.delegate.encode(SAMPLE_PASSWORD));
+  }
+
+  public static CalibratedPasswordEncoder create(PasswordHashingProperties hashingProperties) {
+    Assert.notNull(hashingProperties, "hashingProperties cannot be null");
+    Assert.isTrue(hashingProperties.bcryptStrength() >= MIN_BCRYPT_STRENGTH
+        && hashingProperties.bcryptStrength() <= MAX_BCRYPT_STRENGTH,
+        () -> "bcryptStrength must lie between " + MIN_BCRYPT_STRENGTH + " and "
+            + MAX_BCRYPT_STRENGTH);
+    Assert.isTrue(hashingProperties.argon2Iterations() >= MIN_ARGON2_ITERATIONS
+        && hashingProperties.argon2Iterations() <= MAX_ARGON2_ITERATIONS,
+        () -> "argon2Iterations must lie between " + MIN_ARGON2_ITERATIONS + " and "
+            + MAX_ARGON2_ITERATIONS);
+    String idForEncode = switch (hashingProperties.algorithm()) {
+      case BCRYPT -> "bcrypt";
+      case ARGON2 -> "argon2";
+    };
+    CalibratedPasswordEncoder passwordEncoder = new CalibratedPasswordEncoder(idForEncode,
+        hashingProperties.bcryptStrength(), hashingProperties.argon2Iterations());
+    log.info("Password hashes use {}", passwordEncoder.hashParameters);
+    if (hashingProperties.calibrate()) {
+      Duration target = hashingProperties.targetHashTime();
+      log.info("Calibration for a target of {} ms on this node suggests bcrypt strength {} and "
+          + "argon2 iterations {}", target.toMillis(), calibrateBcrypt(target),
+          calibrateArgon2(target));
+    }
+    return passwordEncoder;
+  }
+
+  /**
+   * The scheme and parameters of an encoded password, without salt and hash, e.g.
+   * {@code {bcrypt}$2a$12$}. Matches the grouping reported by
+   * {@code AppUserRepository.countByHashParameters}.
+   */
+  public static String hashParameters(String encodedPassword) {
+    if (encodedPassword == null || !encodedPassword.startsWith("{")) {
+      return null;
+    }
+    int idEnd = encodedPassword.indexOf('}');
+    if (idEnd < 0) {
+      return null;
+    }
+    String id = encodedPassword.substring(0, idEnd + 1);
+    int separators = switch (id) {
+      case "{bcrypt}" -> 3;
+      case "{argon2}" -> 4;
+      default -> 0;
+    };
+    for (int i = idEnd + 1; i < encodedPassword.length() && separators > 0; i++) {
+      if (encodedPassword.charAt(i) == '$' && --separators == 0) {
+        return encodedPassword.substring(0, i + 1);
+      }
+    }
+    return id;
+  }
+
+  public String getHashParameters() {
+    return this.hashParameters;
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return this.delegate.encode(rawPassword);
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return this.delegate.matches(rawPassword, encodedPassword);
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    String parameters = hashParameters(encodedPassword);
+    if (parameters == null || !parameters.startsWith(this.idForEncode)) {
+      return true;
+    }
+    // {bcrypt}$2a$12$ or {argon2}$argon2id$v=19$m=19456,t=3,p=1$
+    String[] fields = parameters.split("\\$");
+    try {
+      if (this.idForEncode.equals("{bcrypt}")) {
+        return fields.length < 3 || Integer.parseInt(fields[2]) < this.bcryptStrength;
+      }
+      if (fields.length < 4) {
+        return true;
+      }
+      int memory = 0;
+      int iterations = 0;
+      for (String field : fields[3].split(",")) {
+        if (field.startsWith("m=")) {
+          memory = Integer.parseInt(field.substring(2));
+        } else if (field.startsWith("t=")) {
+          iterations = Integer.parseInt(field.substring(2));
+        }
+      }
+      return memory < ARGON2_MEMORY_KIB || iterations < this.argon2Iterations;
+    } catch (NumberFormatException ex) {
+      return true;
+    }
+  }
+
+  private static int calibrateBcrypt(Duration target) {
+    // Every strength step doubles the cost
+    int strength = MIN_BCRYPT_STRENGTH;
+    Duration elapsed = measure(new BCryptPasswordEncoder(strength));
+    while (strength < MAX_BCRYPT_STRENGTH && elapsed.multipliedBy(2).compareTo(target) <= 0) {
+      strength++;
+      elapsed = elapsed.multipliedBy(2);
+    }
+    return strength;
+  }
+
+  private static int calibrateArgon2(Duration target) {
+    // The cost grows linearly with the iterations at fixed memory
+    Duration elapsed = measure(newArgon2(MIN_ARGON2_ITERATIONS));
+    long perIteration = Math.max(1, elapsed.toNanos() / MIN_ARGON2_ITERATIONS);
+    return (int) Math.clamp(target.toNanos() / perIteration, MIN_ARGON2_ITERATIONS,
+        MAX_ARGON2_ITERATIONS);
+  }
+
+  private static Argon2PasswordEncoder newArgon2(int iterations) {
+    return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, ARGON2_PARALLELISM,
+        ARGON2_MEMORY_KIB, iterations);
+  }
+
+  private static Duration measure(PasswordEncoder passwordEncoder) {
+    // Warm up, then keep the fastest of a few runs to filter out startup noise
+    passwordEncoder.encode(SAMPLE_PASSWORD);
+    long fastest = Long.MAX_VALUE;
+    for (int i = 0; i < 3; i++) {
+      long startedAt = System.nanoTime();
+      passwordEncoder.encode(SAMPLE_PASSWORD);
+      fastest = Math.min(fastest, System.nanoTime() - startedAt);
+    }
+    return Duration.ofNanos(fastest);
+  }
+}
@@ -0,0 +1,111 @@
+package com.scaler.auth_server.security;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.Assert;
+import org.springframework.web.filter.OncePerRequestFilter;
+import com.scaler.auth_server.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sheds load per endpoint class: a request beyond the adaptive limit of its class is answered
+ * with 503 and {@code Retry-After} at once instead of waiting for a database connection or a
+ * hashing thread. Classes are matched in order and unmatched requests pass through. A 429 from
+ * the endpoint itself is a fast rejection, not a measure of its latency, so it is not sampled.
+ * Limit, in-flight count and rejections are published as {@code auth.concurrency.*} tagged by
+ * class.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+  private final List<LimitedEndpoint> endpoints = new ArrayList<>();
+  private final String retryAfterSeconds;
+
+  /**
+   * @param endpointClasses matchers by endpoint class name, in matching order
+   */
+  public ConcurrencyLimitFilter(Map<String, RequestMatcher> endpointClasses,
+      ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+    Assert.notEmpty(endpointClasses, "endpointClasses cannot be empty");
+    Assert.notNull(properties, "properties cannot be null");
+    Assert.notNull(meterRegistry, "meterRegistry cannot be null");
+    endpointClasses.forEach((name, matcher) -> {
+      AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+      Gauge.builder("auth.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+          .description("Concurrent requests currently allowed").tag("endpoint", name)
+          .register(meterRegistry);
+      Gauge.builder("auth.concurrency.in.flight", limiter,
+          AdaptiveConcurrencyLimiter::getInFlight)
+          .description("Requests currently holding a permit").tag("endpoint", name)
+          .register(meterRegistry);
+      Counter rejected = Counter.builder("auth.concurrency.rejected")
+          .description("Requests rejected because the limit was reached").tag("endpoint", name)
+          .register(meterRegistry);
+      this.endpoints.add(new LimitedEndpoint(matcher, limiter, rejected));
+    });
+    this.retryAfterSeconds =
+        String.valueOf(Math.max(1, properties.retryAfter().toSeconds()));
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return match(request) == null;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    LimitedEndpoint endpoint = match(request);
+    AdaptiveConcurrencyLimiter limiter = endpoint.limiter();
+    if (!limiter.tryAcquire()) {
+      endpoint.rejected().increment();
+      reject(response);
+      return;
+    }
+    long startedAt = System.nanoTime();
+    boolean completed = false;
+    try {
+      filterChain.doFilter(request, response);
+      completed = true;
+    } finally {
+      int status = response.getStatus();
+      if (completed && status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+        limiter.releaseUnsampled();
+      } else {
+        limiter.release(System.nanoTime() - startedAt,
+            !completed || status == HttpStatus.SERVICE_UNAVAILABLE.value());
+      }
+    }
+  }
+
+  private LimitedEndpoint match(HttpServletRequest request) {
+    for (LimitedEndpoint endpoint : this.endpoints) {
+      if (endpoint.matcher().matches(request)) {
+        return endpoint;
+      }
+    }
+    return null;
+  }
+
+  private void reject(HttpServletResponse response) throws IOException {
+    response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, this.retryAfterSeconds);
+    response.setContentType("application/json;charset=UTF-8");
+    response.getWriter().write(String.format(
+        "{ \"message\": \"server is busy, retry later\", \"timestamp\": \"%s\"}", Instant.now()));
+  }
+
+  private record LimitedEndpoint(RequestMatcher matcher, AdaptiveConcurrencyLimiter limiter,
+      Counter rejected) {
+  }
+}
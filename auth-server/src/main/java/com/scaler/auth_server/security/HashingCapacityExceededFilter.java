@@ -0,0 +1,53 @@
+package com.scaler.auth_server.security;
+
+import java.io.IOException;
+import java.time.Instant;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import com.scaler.auth_server.exception.HashingCapacityExceededException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Answers a {@link HashingCapacityExceededException} thrown inside a security filter chain with
+ * 503 and {@code Retry-After}, as {@code GlobalExceptionHandler} does for controllers. Client
+ * secrets are verified by the authorization server's filters, before any controller advice
+ * applies, so without it a saturated hashing pool surfaces as a 500.
+ */
+@Slf4j
+public class HashingCapacityExceededFilter extends OncePerRequestFilter {
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    try {
+      filterChain.doFilter(request, response);
+    } catch (RuntimeException | ServletException ex) {
+      HashingCapacityExceededException capacityExceeded = findCause(ex);
+      if (capacityExceeded == null || response.isCommitted()) {
+        throw ex;
+      }
+      log.warn("Rejecting {} - {}", request.getRequestURI(), capacityExceeded.getMessage());
+      response.reset();
+      response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER,
+          String.valueOf(Math.max(1, capacityExceeded.getRetryAfter().toSeconds())));
+      response.setContentType("application/json;charset=UTF-8");
+      response.getWriter().write(String.format("{ \"message\": \"%s\", \"timestamp\": \"%s\"}",
+          capacityExceeded.getMessage(), Instant.now()));
+    }
+  }
+
+  private static HashingCapacityExceededException findCause(Throwable ex) {
+    for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+      if (cause instanceof HashingCapacityExceededException capacityExceeded) {
+        return capacityExceeded;
+      }
+    }
+    return null;
+  }
+}
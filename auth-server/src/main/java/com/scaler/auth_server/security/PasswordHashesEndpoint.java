@@ -0,0 +1,36 @@
+package com.scaler.auth_server.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import com.scaler.auth_server.repositories.AppUserRepository;
+import com.scaler.auth_server.repositories.AppUserRepository.HashParameterCount;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Actuator endpoint reporting how many users are on each hash scheme and work factor, and which
+ * parameters new hashes currently use. Users not on the current parameters are upgraded at their
+ * next login.
+ */
+@Component
+@Endpoint(id = "passwordhashes")
+@RequiredArgsConstructor
+public class PasswordHashesEndpoint {
+
+  private final AppUserRepository appUserRepository;
+  private final CalibratedPasswordEncoder passwordEncoder;
+
+  @ReadOperation
+  public Map<String, Object> passwordHashes() {
+    Map<String, Long> users = new LinkedHashMap<>();
+    for (HashParameterCount count : appUserRepository.countByHashParameters()) {
+      users.put(count.getParameters(), count.getUsers());
+    }
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("current", passwordEncoder.getHashParameters());
+    report.put("users", users);
+    return report;
+  }
+}
@@ -0,0 +1,48 @@
+package com.scaler.auth_server.security;
+
+import org.springframework.security.oauth2.core.oidc.IdTokenClaimNames;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtEncodingException;
+import org.springframework.util.Assert;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link JwtEncoder} recording the signing time of its delegate in {@code auth.jwt.encode}, tagged
+ * by algorithm, token type and outcome. ID tokens are told apart from access tokens by their
+ * {@code azp} claim, which the authorization server only sets on ID tokens.
+ */
+public class TimedJwtEncoder implements JwtEncoder {
+  private final JwtEncoder delegate;
+  private final MeterRegistry meterRegistry;
+
+  public TimedJwtEncoder(JwtEncoder delegate, MeterRegistry meterRegistry) {
+    Assert.notNull(delegate, "delegate cannot be null");
+    Assert.notNull(meterRegistry, "meterRegistry cannot be null");
+    this.delegate = delegate;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public Jwt encode(JwtEncoderParameters parameters) throws JwtEncodingException {
+    Timer.Sample sample = Timer.start(this.meterRegistry);
+    String outcome = "error";
+    try {
+      Jwt jwt = this.delegate.encode(parameters);
+      outcome = "success";
+      return jwt;
+    } finally {
+      String algorithm = parameters.getJwsHeader() != null
+          && parameters.getJwsHeader().getAlgorithm() != null
+              ? parameters.getJwsHeader().getAlgorithm().getName()
+              : "default";
+      String tokenType = parameters.getClaims().hasClaim(IdTokenClaimNames.AZP) ? "id_token"
+          : "access_token";
+      sample.stop(Timer.builder("auth.jwt.encode").description("Time spent signing a JWT")
+          .tags("algorithm", algorithm, "token_type", tokenType, "outcome", outcome)
+          .register(this.meterRegistry));
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.scaler.auth_server.security;
+
+import java.io.IOException;
+import java.util.Set;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.Assert;
+import org.springframework.web.filter.OncePerRequestFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Times token endpoint requests end to end, client authentication included, in
+ * {@code auth.token.requests} tagged by grant type and outcome. Unknown grant types are reported
+ * as {@code other} so a misbehaving client cannot inflate the number of time series.
+ */
+public class TokenEndpointMetricsFilter extends OncePerRequestFilter {
+  private static final Set<String> GRANT_TYPES =
+      Set.of(AuthorizationGrantType.AUTHORIZATION_CODE.getValue(),
+          AuthorizationGrantType.REFRESH_TOKEN.getValue(),
+          AuthorizationGrantType.CLIENT_CREDENTIALS.getValue(),
+          AuthorizationGrantType.DEVICE_CODE.getValue(),
+          AuthorizationGrantType.TOKEN_EXCHANGE.getValue(),
+          AuthorizationGrantType.JWT_BEARER.getValue());
+
+  private final RequestMatcher tokenEndpointMatcher;
+  private final MeterRegistry meterRegistry;
+
+  public TokenEndpointMetricsFilter(String tokenEndpoint, MeterRegistry meterRegistry) {
+    Assert.hasText(tokenEndpoint, "tokenEndpoint cannot be empty");
+    Assert.notNull(meterRegistry, "meterRegistry cannot be null");
+    this.tokenEndpointMatcher =
+        PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.POST, tokenEndpoint);
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !this.tokenEndpointMatcher.matches(request);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    Timer.Sample sample = Timer.start(this.meterRegistry);
+    boolean failed = true;
+    try {
+      filterChain.doFilter(request, response);
+      failed = false;
+    } finally {
+      sample.stop(Timer.builder("auth.token.requests")
+          .description("Latency of token endpoint requests")
+          .tags("grant_type", grantType(request), "outcome",
+              failed ? "server_error" : outcome(response.getStatus()))
+          .register(this.meterRegistry));
+    }
+  }
+
+  private static String grantType(HttpServletRequest request) {
+    String grantType = request.getParameter(OAuth2ParameterNames.GRANT_TYPE);
+    if (grantType == null) {
+      return "none";
+    }
+    return GRANT_TYPES.contains(grantType) ? grantType : "other";
+  }
+
+  private static String outcome(int status) {
+    HttpStatus.Series series = HttpStatus.Series.resolve(status);
+    return switch (series != null ? series : HttpStatus.Series.SERVER_ERROR) {
+      case SUCCESSFUL -> "success";
+      // The token endpoint only answers 401 when client authentication fails
+      case CLIENT_ERROR -> status == HttpStatus.UNAUTHORIZED.value() ? "invalid_client"
+          : "client_error";
+      case SERVER_ERROR -> "server_error";
+      default -> "other";
+    };
+  }
+}
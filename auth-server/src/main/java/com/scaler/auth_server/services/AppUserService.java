@@ -3,18 +3,44 @@ package com.scaler.auth_server.services;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.scaler.auth_server.config.UserCacheProperties;
+import com.scaler.auth_server.dtos.AppUserProfile;
 import com.scaler.auth_server.dtos.RegisterUserDto;
 import com.scaler.auth_server.exception.UserAlreadyExistsException;
 import com.scaler.auth_server.mappers.AppUserMapper;
 import com.scaler.auth_server.models.AppUser;
 import com.scaler.auth_server.repositories.AppUserRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 @Service
-@RequiredArgsConstructor
 public class AppUserService implements IAppUserService {
+  static final String PROFILES_BY_EMAIL_CACHE = "app-user-profile.email";
+
   private final AppUserRepository appUserRepository;
   private final PasswordEncoder passwordEncoder;
+  private final CacheInvalidationService cacheInvalidationService;
+  // Profiles only; password hashes are always read from the database
+  private final Cache<String, AppUserProfile> profilesByEmail;
+
+  public AppUserService(AppUserRepository appUserRepository, PasswordEncoder passwordEncoder,
+      CacheInvalidationService cacheInvalidationService, UserCacheProperties userCacheProperties,
+      MeterRegistry meterRegistry) {
+    Assert.notNull(appUserRepository, "appUserRepository cannot be null");
+    Assert.notNull(passwordEncoder, "passwordEncoder cannot be null");
+    Assert.notNull(cacheInvalidationService, "cacheInvalidationService cannot be null");
+    Assert.notNull(userCacheProperties, "userCacheProperties cannot be null");
+    Assert.notNull(meterRegistry, "meterRegistry cannot be null");
+    this.appUserRepository = appUserRepository;
+    this.passwordEncoder = passwordEncoder;
+    this.cacheInvalidationService = cacheInvalidationService;
+    this.profilesByEmail = CaffeineCacheMetrics.monitor(meterRegistry,
+        newProfileCache(userCacheProperties), "appUserProfilesByEmail");
+    cacheInvalidationService.register(PROFILES_BY_EMAIL_CACHE, this.profilesByEmail::invalidate);
+  }
 
   @Override
   public AppUser registerAppUser(RegisterUserDto registerUserDto) {
@@ -34,8 +60,44 @@ public class AppUserService implements IAppUserService {
 
   @Override
   public AppUser getAppUserByEmail(String email) {
-    return appUserRepository.findByEmail(email).orElseThrow(
+    AppUser appUser = appUserRepository.findByEmail(email).orElseThrow(
         () -> new UsernameNotFoundException("User with email " + email + " not found"));
+    // A login has just read the row anyway, so refresh the profile for the following requests
+    AppUserProfile profile = AppUserMapper.toProfile(appUser);
+    profilesByEmail.put(profile.email(), profile);
+    return appUser;
+  }
+
+  @Override
+  public AppUserProfile getAppUserProfileByEmail(String email) {
+    Assert.hasText(email, "email cannot be empty");
+    return profilesByEmail.get(email,
+        key -> AppUserMapper.toProfile(appUserRepository.findByEmail(key).orElseThrow(
+            () -> new UsernameNotFoundException("User with email " + key + " not found"))));
+  }
+
+  @Override
+  public AppUser updatePassword(String email, String encodedPassword) {
+    AppUser appUser = appUserRepository.findByEmail(email).orElseThrow(
+        () -> new UsernameNotFoundException("User with email " + email + " not found"));
+    appUser.setPassword(encodedPassword);
+    AppUser savedAppUser = appUserRepository.save(appUser);
+    evictProfile(savedAppUser);
+    return savedAppUser;
+  }
+
+  /**
+   * Drops the user's profile on every node; to be called after any change to the user.
+   */
+  private void evictProfile(AppUser appUser) {
+    profilesByEmail.invalidate(appUser.getEmail());
+    cacheInvalidationService.publish(PROFILES_BY_EMAIL_CACHE, appUser.getEmail());
+  }
+
+  private static Cache<String, AppUserProfile> newProfileCache(
+      UserCacheProperties userCacheProperties) {
+    return Caffeine.newBuilder().maximumSize(userCacheProperties.maximumSize())
+        .expireAfterWrite(userCacheProperties.timeToLive()).recordStats().build();
   }
 
 }
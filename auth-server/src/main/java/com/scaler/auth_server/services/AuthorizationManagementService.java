@@ -0,0 +1,182 @@
+package com.scaler.auth_server.services;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import com.scaler.auth_server.config.AuthorizationManagementProperties;
+import com.scaler.auth_server.dtos.AuthorizationPageDto;
+import com.scaler.auth_server.dtos.AuthorizationSummaryDto;
+import com.scaler.auth_server.exception.ClientNotFoundException;
+import com.scaler.auth_server.mappers.AuthorizationMapper;
+import com.scaler.auth_server.models.Client;
+import com.scaler.auth_server.repositories.AuthorizationRepository;
+import com.scaler.auth_server.repositories.AuthorizationRepository.AuthorizationSummary;
+import com.scaler.auth_server.repositories.AuthorizationTokenLookupRepository;
+import com.scaler.auth_server.repositories.ClientRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lists and revokes the authorizations of a user or client. Both walk the
+ * {@code (principal_name, id)} and {@code (registered_client_id, id)} indexes with an id cursor;
+ * revocation reads ids only and deletes them with bulk statements in small transactions, so a
+ * client with millions of authorizations never loads an entity or holds locks for long.
+ *
+ * <p>A revocation is broadcast through {@link CacheInvalidationService}. Every node then drops
+ * the matching authorizations it holds in memory or has not written yet, and deletes again any it
+ * wrote between the bulk delete and receiving the broadcast.
+ */
+@Slf4j
+@Service
+public class AuthorizationManagementService implements IAuthorizationManagementService {
+  static final String PRINCIPAL_REVOCATIONS = "authorization.principal-name";
+  static final String CLIENT_REVOCATIONS = "authorization.registered-client-id";
+
+  private final AuthorizationRepository authorizationRepository;
+  private final AuthorizationTokenLookupRepository authorizationTokenLookupRepository;
+  private final ClientRepository clientRepository;
+  private final TieredOAuth2AuthorizationService authorizationService;
+  private final AuthorizationManagementProperties managementProperties;
+  private final CacheInvalidationService cacheInvalidationService;
+  private final TransactionTemplate transactionTemplate;
+
+  public AuthorizationManagementService(AuthorizationRepository authorizationRepository,
+      AuthorizationTokenLookupRepository authorizationTokenLookupRepository,
+      ClientRepository clientRepository, TieredOAuth2AuthorizationService authorizationService,
+      AuthorizationManagementProperties managementProperties,
+      CacheInvalidationService cacheInvalidationService,
+      PlatformTransactionManager transactionManager) {
+    Assert.notNull(authorizationRepository, "authorizationRepository cannot be null");
+    Assert.notNull(authorizationTokenLookupRepository,
+        "authorizationTokenLookupRepository cannot be null");
+    Assert.notNull(clientRepository, "clientRepository cannot be null");
+    Assert.notNull(authorizationService, "authorizationService cannot be null");
+    Assert.notNull(managementProperties, "managementProperties cannot be null");
+    Assert.notNull(cacheInvalidationService, "cacheInvalidationService cannot be null");
+    this.authorizationRepository = authorizationRepository;
+    this.authorizationTokenLookupRepository = authorizationTokenLookupRepository;
+    this.clientRepository = clientRepository;
+    this.authorizationService = authorizationService;
+    this.managementProperties = managementProperties;
+    this.cacheInvalidationService = cacheInvalidationService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    cacheInvalidationService.register(PRINCIPAL_REVOCATIONS,
+        principalName -> logStragglers(revokePrincipal(principalName), principalName));
+    cacheInvalidationService.register(CLIENT_REVOCATIONS,
+        registeredClientId -> logStragglers(revokeClient(registeredClientId), registeredClientId));
+  }
+
+  @Override
+  public AuthorizationPageDto listByPrincipalName(String principalName, String after,
+      Integer limit) {
+    Assert.hasText(principalName, "principalName cannot be empty");
+    int pageSize = pageSize(limit);
+    return toPage(this.authorizationRepository.findByPrincipalName(principalName,
+        cursor(after), Limit.of(pageSize)), pageSize);
+  }
+
+  @Override
+  public AuthorizationPageDto listByClientId(String clientId, String after, Integer limit) {
+    String registeredClientId = registeredClientId(clientId);
+    int pageSize = pageSize(limit);
+    return toPage(this.authorizationRepository.findByRegisteredClientId(registeredClientId,
+        cursor(after), Limit.of(pageSize)), pageSize);
+  }
+
+  @Override
+  public int revokeByPrincipalName(String principalName) {
+    Assert.hasText(principalName, "principalName cannot be empty");
+    int revoked = revokePrincipal(principalName);
+    this.cacheInvalidationService.publish(PRINCIPAL_REVOCATIONS, principalName);
+    log.info("Revoked {} authorizations of principal {}", revoked, principalName);
+    return revoked;
+  }
+
+  @Override
+  public int revokeByClientId(String clientId) {
+    String registeredClientId = registeredClientId(clientId);
+    int revoked = revokeClient(registeredClientId);
+    this.cacheInvalidationService.publish(CLIENT_REVOCATIONS, registeredClientId);
+    log.info("Revoked {} authorizations of client {}", revoked, clientId);
+    return revoked;
+  }
+
+  private int revokePrincipal(String principalName) {
+    this.authorizationService.removeMatching(
+        authorization -> principalName.equals(authorization.getPrincipalName()));
+    return revoke(afterId -> this.authorizationRepository
+        .findIdsByPrincipalName(principalName, afterId, revocationLimit()));
+  }
+
+  private int revokeClient(String registeredClientId) {
+    Predicate<OAuth2Authorization> ofClient =
+        authorization -> registeredClientId.equals(authorization.getRegisteredClientId());
+    this.authorizationService.removeMatching(ofClient);
+    return revoke(afterId -> this.authorizationRepository
+        .findIdsByRegisteredClientId(registeredClientId, afterId, revocationLimit()));
+  }
+
+  private static void logStragglers(int revoked, String key) {
+    if (revoked > 0) {
+      log.info("Revoked {} more authorizations of {} on broadcast revocation", revoked, key);
+    }
+  }
+
+  /**
+   * Deletes batches of ids returned by {@code nextIds} until it runs dry. The cursor advances
+   * past every batch, so rows that could not be deleted are not read again.
+   */
+  private int revoke(Function<String, List<String>> nextIds) {
+    int revoked = 0;
+    String afterId = "";
+    List<String> ids;
+    do {
+      ids = nextIds.apply(afterId);
+      if (ids.isEmpty()) {
+        break;
+      }
+      List<String> batch = ids;
+      Integer deleted = this.transactionTemplate.execute(status -> {
+        this.authorizationTokenLookupRepository.deleteByAuthorizationIdIn(batch);
+        return this.authorizationRepository.deleteByIdIn(batch);
+      });
+      revoked += deleted != null ? deleted : 0;
+      afterId = ids.getLast();
+    } while (ids.size() == this.managementProperties.revocationBatchSize());
+    return revoked;
+  }
+
+  private String registeredClientId(String clientId) {
+    Assert.hasText(clientId, "clientId cannot be empty");
+    return this.clientRepository.findByClientId(clientId).map(Client::getId)
+        .orElseThrow(() -> new ClientNotFoundException("client " + clientId + " not found"));
+  }
+
+  private int pageSize(Integer limit) {
+    if (limit == null || limit <= 0) {
+      return this.managementProperties.defaultPageSize();
+    }
+    return Math.min(limit, this.managementProperties.maxPageSize());
+  }
+
+  private Limit revocationLimit() {
+    return Limit.of(this.managementProperties.revocationBatchSize());
+  }
+
+  private static String cursor(String after) {
+    return after != null ? after : "";
+  }
+
+  private static AuthorizationPageDto toPage(List<AuthorizationSummary> authorizations,
+      int pageSize) {
+    List<AuthorizationSummaryDto> page =
+        authorizations.stream().map(AuthorizationMapper::toSummary).toList();
+    String next = page.size() == pageSize ? page.getLast().id() : null;
+    return new AuthorizationPageDto(page, next);
+  }
+}
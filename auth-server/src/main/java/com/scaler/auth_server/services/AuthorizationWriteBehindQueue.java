@@ -0,0 +1,347 @@
+package com.scaler.auth_server.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.util.Assert;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Group commit for durable authorizations. Saves and removes are coalesced per authorization and
+ * a single writer flushes them in arrival order through
+ * {@link JpaOAuth2AuthorizationService#writeAll}, up to {@code batchSize} per transaction. No
+ * linger delay is applied: writes arriving while a flush commits form the next batch, so batches
+ * only grow under load. Pending writes stay readable by id and token value until their
+ * transaction commits. A write that fails is queued again, and when a whole batch fails (the
+ * database is unreachable) the writer backs off before the next attempt. Only a write rejected by
+ * a reachable database is given up on: after {@value #MAX_ATTEMPTS} such failures it is logged
+ * and dropped, so one authorization that can never be written does not stall the writer. Should
+ * the writer thread ever stop, producers write synchronously instead of waiting for it.
+ */
+@Slf4j
+final class AuthorizationWriteBehindQueue implements AutoCloseable {
+  private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+  private static final long INITIAL_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+  private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+  private static final int MAX_ATTEMPTS = 5;
+
+  private final JpaOAuth2AuthorizationService durableAuthorizationService;
+  private final int batchSize;
+  private final int capacity;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = this.lock.newCondition();
+  private final Condition notFull = this.lock.newCondition();
+  // Writes not yet taken by the writer, in arrival order; guarded by the lock
+  private final Map<String, PendingAuthorization> queued = new LinkedHashMap<>();
+  // Latest write per authorization until it commits; modified under the lock, read without it
+  private final Map<String, PendingAuthorization> pending = new ConcurrentHashMap<>();
+  private final Map<String, String> pendingTokenIndex = new ConcurrentHashMap<>();
+  private final Timer flushTimer;
+  private final DistributionSummary batchSizeSummary;
+  private final Counter failedWrites;
+  private final Counter droppedWrites;
+  private final Thread writer;
+  // Guarded by the lock
+  private boolean closed;
+  private long closedAt;
+  private boolean writerStopped;
+
+  AuthorizationWriteBehindQueue(JpaOAuth2AuthorizationService durableAuthorizationService,
+      int batchSize, int capacity, MeterRegistry meterRegistry) {
+    Assert.notNull(durableAuthorizationService, "durableAuthorizationService cannot be null");
+    Assert.isTrue(batchSize > 0, "batchSize must be positive");
+    Assert.isTrue(capacity > 0, "capacity must be positive");
+    Assert.notNull(meterRegistry, "meterRegistry cannot be null");
+    this.durableAuthorizationService = durableAuthorizationService;
+    this.batchSize = batchSize;
+    this.capacity = capacity;
+    this.flushTimer = Timer.builder("auth.authorization.write.flush.duration")
+        .description("Time spent writing one batch of authorizations").register(meterRegistry);
+    this.batchSizeSummary = DistributionSummary.builder("auth.authorization.write.batch.size")
+        .description("Authorizations written per transaction").minimumExpectedValue(1.0)
+        .maximumExpectedValue((double) batchSize).register(meterRegistry);
+    this.failedWrites = Counter.builder("auth.authorization.write.failed")
+        .description("Authorization writes that failed").register(meterRegistry);
+    this.droppedWrites = Counter.builder("auth.authorization.write.dropped")
+        .description("Authorization writes given up on after repeated failures")
+        .register(meterRegistry);
+    meterRegistry.gauge("auth.authorization.write.pending", this.pending, Map::size);
+    this.writer =
+        Thread.ofPlatform().name("authorization-write-behind").start(this::writeLoop);
+  }
+
+  void save(OAuth2Authorization authorization) {
+    enqueue(new PendingAuthorization(authorization, false, 0));
+  }
+
+  void remove(OAuth2Authorization authorization) {
+    enqueue(new PendingAuthorization(authorization, true, 0));
+  }
+
+  /**
+   * Queues a remove for every pending save whose authorization matches the filter.
+   */
+  void removeMatching(Predicate<OAuth2Authorization> filter) {
+    this.pending.values().stream()
+        .filter(write -> !write.removed() && filter.test(write.authorization()))
+        .map(PendingAuthorization::authorization).toList().forEach(this::remove);
+  }
+
+  /**
+   * The latest uncommitted write of the authorization, or {@code null} when none is pending.
+   */
+  PendingAuthorization findById(String id) {
+    return this.pending.get(id);
+  }
+
+  /**
+   * The latest uncommitted write of the authorization that holds the token value, or {@code null}
+   * when none is pending.
+   */
+  PendingAuthorization findByToken(String token) {
+    String id = this.pendingTokenIndex.get(token);
+    return id != null ? this.pending.get(id) : null;
+  }
+
+  /**
+   * Stops accepting queued writes and waits for the pending ones to commit, retrying failed ones
+   * for up to the shutdown timeout. Writes arriving afterwards go straight to the database.
+   */
+  @Override
+  public void close() throws InterruptedException {
+    this.lock.lock();
+    try {
+      this.closed = true;
+      this.closedAt = System.nanoTime();
+      this.notEmpty.signalAll();
+      this.notFull.signalAll();
+    } finally {
+      this.lock.unlock();
+    }
+    this.writer.join(SHUTDOWN_TIMEOUT.plusNanos(MAX_BACKOFF_NANOS));
+    if (!this.pending.isEmpty()) {
+      log.error("Write-behind queue did not drain before shutdown, {} authorizations not written:"
+          + " {}", this.pending.size(), this.pending.keySet());
+    }
+  }
+
+  private void enqueue(PendingAuthorization write) {
+    String id = write.authorization().getId();
+    this.lock.lock();
+    try {
+      while (!this.closed && !this.writerStopped && this.queued.size() >= this.capacity
+          && !this.queued.containsKey(id)) {
+        this.notFull.awaitUninterruptibly();
+      }
+      if (!this.closed && !this.writerStopped) {
+        // Replacing a queued write keeps its position, so the latest state is written once
+        this.queued.put(id, write);
+        index(id, write, this.pending.put(id, write));
+        this.notEmpty.signal();
+        return;
+      }
+    } finally {
+      this.lock.unlock();
+    }
+    // Nobody retries a synchronous write, so its failure goes to the producer
+    if (write.removed()) {
+      this.durableAuthorizationService.remove(write.authorization());
+    } else {
+      this.durableAuthorizationService.save(write.authorization());
+    }
+  }
+
+  private void writeLoop() {
+    try {
+      long backoffNanos = INITIAL_BACKOFF_NANOS;
+      List<PendingAuthorization> batch;
+      while ((batch = take()) != null) {
+        Map<PendingAuthorization, PendingAuthorization> retries;
+        try {
+          retries = writeAll(batch);
+        } catch (Throwable ex) {
+          // Keep the writer alive whatever the delegate throws; the batch is retried
+          log.error("Write-behind batch of {} authorizations failed", batch.size(), ex);
+          retries = new IdentityHashMap<>();
+          for (PendingAuthorization write : batch) {
+            retries.put(write, write);
+          }
+        }
+        complete(batch, retries);
+        if (retries.size() < batch.size()) {
+          backoffNanos = INITIAL_BACKOFF_NANOS;
+        } else {
+          // Nothing could be written, most likely the database is unavailable
+          LockSupport.parkNanos(backoffNanos);
+          backoffNanos = Math.min(2 * backoffNanos, MAX_BACKOFF_NANOS);
+        }
+      }
+    } finally {
+      this.lock.lock();
+      try {
+        this.writerStopped = true;
+        this.notFull.signalAll();
+        if (!this.closed) {
+          log.error("Write-behind writer stopped, authorizations are now written synchronously");
+        }
+      } finally {
+        this.lock.unlock();
+      }
+    }
+  }
+
+  private List<PendingAuthorization> take() {
+    this.lock.lock();
+    try {
+      while (this.queued.isEmpty() && !this.closed) {
+        this.notEmpty.awaitUninterruptibly();
+      }
+      if (this.queued.isEmpty()) {
+        return null; // closed and drained
+      }
+      if (this.closed && System.nanoTime() - this.closedAt > SHUTDOWN_TIMEOUT.toNanos()) {
+        return null; // close() reports what is still pending
+      }
+      List<PendingAuthorization> batch =
+          new ArrayList<>(Math.min(this.batchSize, this.queued.size()));
+      Iterator<PendingAuthorization> iterator = this.queued.values().iterator();
+      while (iterator.hasNext() && batch.size() < this.batchSize) {
+        batch.add(iterator.next());
+        iterator.remove();
+      }
+      this.notFull.signalAll();
+      return batch;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Writes the batch in one transaction, or one by one if that fails. Returns the writes that
+   * could not be written, each mapped to the write to retry it with.
+   */
+  private Map<PendingAuthorization, PendingAuthorization> writeAll(
+      List<PendingAuthorization> batch) {
+    List<OAuth2Authorization> saved = new ArrayList<>(batch.size());
+    List<String> removedIds = new ArrayList<>();
+    for (PendingAuthorization write : batch) {
+      if (write.removed()) {
+        removedIds.add(write.authorization().getId());
+      } else {
+        saved.add(write.authorization());
+      }
+    }
+    long startedAt = System.nanoTime();
+    try {
+      this.durableAuthorizationService.writeAll(saved, removedIds);
+      this.batchSizeSummary.record(batch.size());
+      return Map.of();
+    } catch (RuntimeException ex) {
+      log.warn("Write-behind batch of {} authorizations failed, writing them one by one: {}",
+          batch.size(), ex.getMessage());
+      Map<PendingAuthorization, PendingAuthorization> retries = new IdentityHashMap<>();
+      for (PendingAuthorization write : batch) {
+        PendingAuthorization retry = writeOne(write);
+        if (retry != null) {
+          retries.put(write, retry);
+        }
+      }
+      return retries;
+    } finally {
+      this.flushTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Writes one authorization and returns {@code null}, or the write to retry it with. A failure
+   * while the database is unavailable says nothing about the write and does not count as one of
+   * its attempts.
+   */
+  private PendingAuthorization writeOne(PendingAuthorization write) {
+    try {
+      if (write.removed()) {
+        this.durableAuthorizationService.remove(write.authorization());
+      } else {
+        this.durableAuthorizationService.save(write.authorization());
+      }
+      return null;
+    } catch (RuntimeException ex) {
+      this.failedWrites.increment();
+      log.error("Write-behind {} of authorization {} failed",
+          write.removed() ? "remove" : "save", write.authorization().getId(), ex);
+      return isDatabaseUnavailable(ex) ? write
+          : new PendingAuthorization(write.authorization(), write.removed(), write.attempts() + 1);
+    }
+  }
+
+  private static boolean isDatabaseUnavailable(RuntimeException ex) {
+    return ex instanceof DataAccessResourceFailureException
+        || ex instanceof TransientDataAccessException
+        || ex instanceof CannotCreateTransactionException;
+  }
+
+  private void complete(List<PendingAuthorization> batch,
+      Map<PendingAuthorization, PendingAuthorization> retries) {
+    this.lock.lock();
+    try {
+      for (PendingAuthorization write : batch) {
+        String id = write.authorization().getId();
+        PendingAuthorization retry = retries.get(write);
+        // A failed write stays pending and is retried, unless a newer one has superseded it
+        if (retry != null && this.pending.get(id) == write) {
+          if (retry.attempts() < MAX_ATTEMPTS) {
+            this.pending.put(id, retry);
+            this.queued.putIfAbsent(id, retry);
+            this.notEmpty.signal();
+            continue;
+          }
+          this.droppedWrites.increment();
+          log.error("Dropping write-behind {} of authorization {} after {} failed attempts",
+              write.removed() ? "remove" : "save", id, retry.attempts());
+        }
+        // A newer write of the same authorization stays pending until its own batch commits
+        if (this.pending.remove(id, write)) {
+          TieredOAuth2AuthorizationService.tokenValues(write.authorization())
+              .forEach(tokenValue -> this.pendingTokenIndex.remove(tokenValue, id));
+        }
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void index(String id, PendingAuthorization write, PendingAuthorization previous) {
+    List<String> tokenValues = TieredOAuth2AuthorizationService.tokenValues(write.authorization());
+    tokenValues.forEach(tokenValue -> this.pendingTokenIndex.put(tokenValue, id));
+    if (previous != null) {
+      TieredOAuth2AuthorizationService.tokenValues(previous.authorization()).stream()
+          .filter(tokenValue -> !tokenValues.contains(tokenValue))
+          .forEach(tokenValue -> this.pendingTokenIndex.remove(tokenValue, id));
+    }
+  }
+
+  /**
+   * A queued save, or a remove whose authorization must read as absent until it commits.
+   * {@code attempts} counts the times a reachable database rejected it.
+   */
+  record PendingAuthorization(OAuth2Authorization authorization, boolean removed, int attempts) {
+  }
+}
@@ -0,0 +1,110 @@
+package com.scaler.auth_server.services;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import com.scaler.auth_server.config.CacheInvalidationProperties;
+import com.scaler.auth_server.models.CacheInvalidation;
+import com.scaler.auth_server.repositories.CacheInvalidationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Broadcasts cache invalidations to every auth-server node through the {@code cache_invalidation}
+ * table. Publishers append a row; each node polls the rows it has not applied yet and hands the
+ * keys to the listeners registered for the cache name.
+ */
+@Slf4j
+@Service
+public class CacheInvalidationService {
+  private final CacheInvalidationRepository cacheInvalidationRepository;
+  private final CacheInvalidationProperties cacheInvalidationProperties;
+  private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+  private final Set<Long> appliedIds = new HashSet<>();
+  private long lowWatermark;
+
+  public CacheInvalidationService(CacheInvalidationRepository cacheInvalidationRepository,
+      CacheInvalidationProperties cacheInvalidationProperties) {
+    Assert.notNull(cacheInvalidationRepository, "cacheInvalidationRepository cannot be null");
+    Assert.notNull(cacheInvalidationProperties, "cacheInvalidationProperties cannot be null");
+    this.cacheInvalidationRepository = cacheInvalidationRepository;
+    this.cacheInvalidationProperties = cacheInvalidationProperties;
+  }
+
+  @PostConstruct
+  synchronized void init() {
+    // Caches start empty, so there is nothing older to replay
+    this.lowWatermark = this.cacheInvalidationRepository.findMaxId().orElse(0L);
+  }
+
+  public void register(String cacheName, Consumer<String> listener) {
+    Assert.hasText(cacheName, "cacheName cannot be empty");
+    Assert.notNull(listener, "listener cannot be null");
+    this.listeners.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(listener);
+  }
+
+  public void publish(String cacheName, String cacheKey) {
+    Assert.hasText(cacheName, "cacheName cannot be empty");
+    Assert.hasText(cacheKey, "cacheKey cannot be empty");
+    CacheInvalidation cacheInvalidation = new CacheInvalidation();
+    cacheInvalidation.setCacheName(cacheName);
+    cacheInvalidation.setCacheKey(cacheKey);
+    this.cacheInvalidationRepository.save(cacheInvalidation);
+  }
+
+  @Scheduled(fixedDelayString = "${auth-server.cache-invalidation.poll-interval:2s}")
+  public synchronized void poll() {
+    // Rows are stamped by the database clock, so the window is measured against it as well
+    LocalDateTime settledBefore = this.cacheInvalidationRepository.findDatabaseTime()
+        .minus(this.cacheInvalidationProperties.settleWindow());
+    long afterId = this.lowWatermark;
+    boolean settled = true;
+    List<CacheInvalidation> batch;
+    do {
+      batch = this.cacheInvalidationRepository.findByIdGreaterThanOrderByIdAsc(afterId,
+          Limit.of(this.cacheInvalidationProperties.batchSize()));
+      for (CacheInvalidation cacheInvalidation : batch) {
+        if (this.appliedIds.add(cacheInvalidation.getId())) {
+          dispatch(cacheInvalidation);
+        }
+        // Only move the watermark across rows old enough that no earlier id can still commit
+        settled = settled && cacheInvalidation.getCreatedAt() != null
+            && cacheInvalidation.getCreatedAt().isBefore(settledBefore);
+        if (settled) {
+          this.lowWatermark = cacheInvalidation.getId();
+        }
+        afterId = cacheInvalidation.getId();
+      }
+    } while (batch.size() == this.cacheInvalidationProperties.batchSize());
+    this.appliedIds.removeIf(id -> id <= this.lowWatermark);
+  }
+
+  @Scheduled(fixedDelayString = "${auth-server.cache-invalidation.retention:1h}")
+  public void purge() {
+    LocalDateTime cutoff = this.cacheInvalidationRepository.findDatabaseTime()
+        .minus(this.cacheInvalidationProperties.retention());
+    int purged = this.cacheInvalidationRepository.deleteCreatedBefore(cutoff);
+    log.debug("Purged {} cache invalidation rows", purged);
+  }
+
+  private void dispatch(CacheInvalidation cacheInvalidation) {
+    for (Consumer<String> listener : this.listeners.getOrDefault(cacheInvalidation.getCacheName(),
+        List.of())) {
+      try {
+        listener.accept(cacheInvalidation.getCacheKey());
+      } catch (RuntimeException ex) {
+        log.warn("Cache invalidation listener failed for {} - {}",
+            cacheInvalidation.getCacheName(), ex.getMessage());
+      }
+    }
+  }
+}
@@ -1,39 +1,162 @@
 package com.scaler.auth_server.services;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import com.scaler.auth_server.config.ClientRegistrationProperties;
+import com.scaler.auth_server.config.PasswordHashingProperties;
+import com.scaler.auth_server.dtos.ClientRegistrationResult;
 import com.scaler.auth_server.dtos.RegisterClientDto;
 import com.scaler.auth_server.mappers.ClientMapper;
 import com.scaler.auth_server.models.Client;
-import com.scaler.auth_server.repositories.ClientRepository;
 import com.scaler.auth_server.utils.SecretGenerator;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class ClientService implements IClientService {
 
   private final JpaRegisteredClientRepository jpaRegisteredClientRepository;
-  private final ClientRepository clientRepository;
   private final PasswordEncoder passwordEncoder;
+  private final TransactionTemplate transactionTemplate;
+  private final ClientRegistrationProperties clientRegistrationProperties;
+  // Shared by all batch registrations, so concurrent batches cannot add up to every hashing thread
+  private final Semaphore batchHashingPermits;
+
+  public ClientService(JpaRegisteredClientRepository jpaRegisteredClientRepository,
+      PasswordEncoder passwordEncoder, TransactionTemplate transactionTemplate,
+      ClientRegistrationProperties clientRegistrationProperties,
+      PasswordHashingProperties passwordHashingProperties) {
+    Assert.isTrue(clientRegistrationProperties.hashingParallelism() >= 0,
+        "hashingParallelism cannot be negative");
+    this.jpaRegisteredClientRepository = jpaRegisteredClientRepository;
+    this.passwordEncoder = passwordEncoder;
+    this.transactionTemplate = transactionTemplate;
+    this.clientRegistrationProperties = clientRegistrationProperties;
+    int hashingThreads = passwordHashingProperties.threads() > 0
+        ? passwordHashingProperties.threads()
+        : Runtime.getRuntime().availableProcessors();
+    int parallelism = clientRegistrationProperties.hashingParallelism() > 0
+        ? clientRegistrationProperties.hashingParallelism()
+        : Math.max(1, hashingThreads / 2);
+    this.batchHashingPermits = new Semaphore(parallelism);
+  }
 
   @Override
   public Client registerClient(RegisterClientDto registerClientDto) {
     // Generate secure client ID and secret
     String clientId = SecretGenerator.generateClientId();
     String plainSecret = SecretGenerator.generateClientSecret();
-    String hashedSecret = "{bcrypt}" + passwordEncoder.encode(plainSecret);
+    // The delegating encoder already prefixes the hash with its {id}
+    String hashedSecret = passwordEncoder.encode(plainSecret);
 
     var registeredClient =
         ClientMapper.toRegisteredClient(registerClientDto, clientId, hashedSecret);
-    jpaRegisteredClientRepository.save(registeredClient);
-
-    Client client = clientRepository.findByClientId(clientId)
-        .orElseThrow(() -> new IllegalStateException("Client not persisted"));
+    // The persisted entity is the response; no read-back
+    Client client = jpaRegisteredClientRepository.insert(registeredClient);
 
     // Store the plain secret temporarily for the response (it's not persisted)
     client.setPlainSecret(plainSecret);
     return client;
   }
 
+  @Override
+  public void registerClients(List<RegisterClientDto> registerClientDtos,
+      Consumer<ClientRegistrationResult> results) {
+    int chunkSize = clientRegistrationProperties.chunkSize();
+    for (int from = 0; from < registerClientDtos.size(); from += chunkSize) {
+      int to = Math.min(from + chunkSize, registerClientDtos.size());
+      registerChunk(registerClientDtos.subList(from, to), from, results);
+    }
+  }
+
+  private void registerChunk(List<RegisterClientDto> chunk, int offset,
+      Consumer<ClientRegistrationResult> results) {
+    List<PendingClient> pendingClients = prepareClients(chunk, offset, results);
+    if (pendingClients.isEmpty()) {
+      return;
+    }
+
+    List<Client> clients;
+    try {
+      clients = transactionTemplate.execute(status -> jpaRegisteredClientRepository
+          .insertAll(pendingClients.stream().map(PendingClient::registeredClient).toList()));
+    } catch (RuntimeException ex) {
+      log.warn("Failed to store clients {} to {}: {}", offset, offset + chunk.size() - 1,
+          ex.getMessage());
+      pendingClients.forEach(pendingClient -> results
+          .accept(ClientRegistrationResult.failed(pendingClient.index(), "client not stored")));
+      return;
+    }
+
+    // The saved entities are the response; no read-back
+    for (int i = 0; i < clients.size(); i++) {
+      PendingClient pendingClient = pendingClients.get(i);
+      Client client = clients.get(i);
+      client.setPlainSecret(pendingClient.plainSecret());
+      results.accept(
+          ClientRegistrationResult.created(pendingClient.index(), ClientMapper.toResponse(client)));
+    }
+  }
+
+  /**
+   * Generates and hashes the secrets of a chunk in parallel. Hashing runs on the bounded
+   * password encoder, and all batches together keep at most {@code hashingParallelism} hashes in
+   * flight, so an import neither fills its queue nor occupies the threads interactive logins
+   * need.
+   */
+  private List<PendingClient> prepareClients(List<RegisterClientDto> chunk, int offset,
+      Consumer<ClientRegistrationResult> results) {
+    List<Future<PendingClient>> futures = new ArrayList<>(chunk.size());
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < chunk.size(); i++) {
+        int index = offset + i;
+        RegisterClientDto registerClientDto = chunk.get(i);
+        futures.add(executor.submit(() -> {
+          batchHashingPermits.acquire();
+          try {
+            return newPendingClient(index, registerClientDto);
+          } finally {
+            batchHashingPermits.release();
+          }
+        }));
+      }
+
+      List<PendingClient> pendingClients = new ArrayList<>(chunk.size());
+      for (int i = 0; i < futures.size(); i++) {
+        try {
+          pendingClients.add(futures.get(i).get());
+        } catch (ExecutionException ex) {
+          results.accept(ClientRegistrationResult.failed(offset + i, ex.getCause().getMessage()));
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while registering clients", ex);
+        }
+      }
+      return pendingClients;
+    }
+  }
+
+  private PendingClient newPendingClient(int index, RegisterClientDto registerClientDto) {
+    String clientId = SecretGenerator.generateClientId();
+    String plainSecret = SecretGenerator.generateClientSecret();
+    String hashedSecret = passwordEncoder.encode(plainSecret);
+    RegisteredClient registeredClient =
+        ClientMapper.toRegisteredClient(registerClientDto, clientId, hashedSecret);
+    return new PendingClient(index, registeredClient, plainSecret);
+  }
+
+  private record PendingClient(int index, RegisteredClient registeredClient, String plainSecret) {
+  }
+
 }
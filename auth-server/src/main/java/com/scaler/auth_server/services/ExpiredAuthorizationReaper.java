@@ -0,0 +1,95 @@
+package com.scaler.auth_server.services;
+
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import com.scaler.auth_server.config.AuthorizationReaperProperties;
+import com.scaler.auth_server.repositories.AuthorizationRepository;
+import com.scaler.auth_server.repositories.AuthorizationRepository.ExpiredAuthorization;
+import com.scaler.auth_server.repositories.AuthorizationTokenLookupRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes authorizations whose tokens have all expired. Rows are walked in
+ * {@code (expires_at, id)} order with a keyset cursor and removed in small transactions, pausing
+ * between batches so the reaper never holds locks for long.
+ */
+@Slf4j
+@Component
+public class ExpiredAuthorizationReaper {
+  private final AuthorizationRepository authorizationRepository;
+  private final AuthorizationTokenLookupRepository authorizationTokenLookupRepository;
+  private final AuthorizationReaperProperties reaperProperties;
+  private final TransactionTemplate transactionTemplate;
+  private final Counter scannedCounter;
+  private final Counter deletedCounter;
+  private final Timer batchTimer;
+
+  public ExpiredAuthorizationReaper(AuthorizationRepository authorizationRepository,
+      AuthorizationTokenLookupRepository authorizationTokenLookupRepository,
+      AuthorizationReaperProperties reaperProperties, PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry) {
+    Assert.notNull(authorizationRepository, "authorizationRepository cannot be null");
+    Assert.notNull(authorizationTokenLookupRepository,
+        "authorizationTokenLookupRepository cannot be null");
+    Assert.notNull(reaperProperties, "reaperProperties cannot be null");
+    this.authorizationRepository = authorizationRepository;
+    this.authorizationTokenLookupRepository = authorizationTokenLookupRepository;
+    this.reaperProperties = reaperProperties;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.scannedCounter = Counter.builder("auth.authorization.reaper.scanned")
+        .description("Expired authorizations scanned by the reaper").register(meterRegistry);
+    this.deletedCounter = Counter.builder("auth.authorization.reaper.deleted")
+        .description("Expired authorizations deleted by the reaper").register(meterRegistry);
+    this.batchTimer = Timer.builder("auth.authorization.reaper.batch")
+        .description("Latency of one reaper batch").register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${auth-server.authorization-reaper.interval:5m}")
+  public void reap() throws InterruptedException {
+    if (!this.reaperProperties.enabled()) {
+      return;
+    }
+    Instant expiredBefore = Instant.now().minus(this.reaperProperties.gracePeriod());
+    Instant afterExpiresAt = Instant.EPOCH;
+    String afterId = "";
+    int deleted = 0;
+    for (int batchCount = 0; batchCount < this.reaperProperties.maxBatchesPerRun(); batchCount++) {
+      Timer.Sample sample = Timer.start();
+      List<ExpiredAuthorization> batch = this.authorizationRepository.findExpired(expiredBefore,
+          afterExpiresAt, afterId, Limit.of(this.reaperProperties.batchSize()));
+      if (batch.isEmpty()) {
+        break;
+      }
+      List<String> ids = batch.stream().map(ExpiredAuthorization::getId).toList();
+      Integer batchDeleted = this.transactionTemplate.execute(status -> {
+        int count = this.authorizationRepository.deleteExpiredByIdIn(ids, expiredBefore);
+        this.authorizationTokenLookupRepository.deleteOrphansByAuthorizationIdIn(ids);
+        return count;
+      });
+      sample.stop(this.batchTimer);
+      this.scannedCounter.increment(batch.size());
+      this.deletedCounter.increment(batchDeleted);
+      deleted += batchDeleted;
+
+      ExpiredAuthorization last = batch.get(batch.size() - 1);
+      afterExpiresAt = last.getExpiresAt();
+      afterId = last.getId();
+      if (batch.size() < this.reaperProperties.batchSize()) {
+        break;
+      }
+      Thread.sleep(this.reaperProperties.batchDelay());
+    }
+    if (deleted > 0) {
+      log.info("Reaped {} expired authorizations", deleted);
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.scaler.auth_server.services;
 
+import com.scaler.auth_server.dtos.AppUserProfile;
 import com.scaler.auth_server.dtos.RegisterUserDto;
 import com.scaler.auth_server.models.AppUser;
 
@@ -8,4 +9,8 @@ public interface IAppUserService {
   AppUser registerAppUser(RegisterUserDto registerUserDto);
 
   AppUser getAppUserByEmail(String email);
+
+  AppUserProfile getAppUserProfileByEmail(String email);
+
+  AppUser updatePassword(String email, String encodedPassword);
 }
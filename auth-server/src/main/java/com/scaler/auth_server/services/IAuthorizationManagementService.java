@@ -0,0 +1,24 @@
+package com.scaler.auth_server.services;
+
+import com.scaler.auth_server.dtos.AuthorizationPageDto;
+
+public interface IAuthorizationManagementService {
+
+  /**
+   * Lists the authorizations of a principal in id order, starting after the {@code after}
+   * cursor of the previous page.
+   */
+  AuthorizationPageDto listByPrincipalName(String principalName, String after, Integer limit);
+
+  AuthorizationPageDto listByClientId(String clientId, String after, Integer limit);
+
+  /**
+   * Deletes every authorization of a principal, ending all of its sessions on all clients.
+   *
+   * @return the number of authorizations deleted from the database
+   */
+  int revokeByPrincipalName(String principalName);
+
+  int revokeByClientId(String clientId);
+
+}
@@ -1,5 +1,8 @@
 package com.scaler.auth_server.services;
 
+import java.util.List;
+import java.util.function.Consumer;
+import com.scaler.auth_server.dtos.ClientRegistrationResult;
 import com.scaler.auth_server.dtos.RegisterClientDto;
 import com.scaler.auth_server.models.Client;
 
@@ -7,4 +10,11 @@ public interface IClientService {
 
   Client registerClient(RegisterClientDto registerClientDto);
 
+  /**
+   * Registers many clients, reporting each outcome to {@code results} as soon as its chunk is
+   * stored. A failing entry does not affect the others.
+   */
+  void registerClients(List<RegisterClientDto> registerClientDtos,
+      Consumer<ClientRegistrationResult> results);
+
 }
@@ -1,7 +1,6 @@
 package com.scaler.auth_server.services;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Optional;
 import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -11,28 +10,54 @@ import org.springframework.security.oauth2.server.authorization.client.Registere
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
-import org.springframework.util.StringUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.scaler.auth_server.config.ConsentCacheProperties;
 import com.scaler.auth_server.models.AuthorizationConsent;
 import com.scaler.auth_server.repositories.AuthorizationConsentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
+/**
+ * {@link OAuth2AuthorizationConsentService} backed by {@code authorization_consent}, with a cache
+ * in front that also remembers missing consents, since every authorization request of a client
+ * requiring consent looks one up. Saves and removes evict the entry on every node.
+ */
 @Component
 public class JpaOAuth2AuthorizationConsentService implements OAuth2AuthorizationConsentService {
+  static final String CONSENTS_CACHE = "authorization-consent";
+
   private final AuthorizationConsentRepository authorizationConsentRepository;
   private final RegisteredClientRepository registeredClientRepository;
+  private final CacheInvalidationService cacheInvalidationService;
+  private final Cache<String, Optional<OAuth2AuthorizationConsent>> consents;
 
   public JpaOAuth2AuthorizationConsentService(
       AuthorizationConsentRepository authorizationConsentRepository,
-      RegisteredClientRepository registeredClientRepository) {
+      RegisteredClientRepository registeredClientRepository,
+      CacheInvalidationService cacheInvalidationService,
+      ConsentCacheProperties consentCacheProperties, MeterRegistry meterRegistry) {
     Assert.notNull(authorizationConsentRepository, "authorizationConsentRepository cannot be null");
     Assert.notNull(registeredClientRepository, "registeredClientRepository cannot be null");
+    Assert.notNull(cacheInvalidationService, "cacheInvalidationService cannot be null");
+    Assert.notNull(consentCacheProperties, "consentCacheProperties cannot be null");
+    Assert.notNull(meterRegistry, "meterRegistry cannot be null");
     this.authorizationConsentRepository = authorizationConsentRepository;
     this.registeredClientRepository = registeredClientRepository;
+    this.cacheInvalidationService = cacheInvalidationService;
+    this.consents = CaffeineCacheMetrics.monitor(meterRegistry,
+        Caffeine.newBuilder().maximumSize(consentCacheProperties.maximumSize())
+            .expireAfterWrite(consentCacheProperties.timeToLive()).recordStats()
+            .<String, Optional<OAuth2AuthorizationConsent>>build(),
+        "authorizationConsents");
+    cacheInvalidationService.register(CONSENTS_CACHE, this.consents::invalidate);
   }
 
   @Override
   public void save(OAuth2AuthorizationConsent authorizationConsent) {
     Assert.notNull(authorizationConsent, "authorizationConsent cannot be null");
     this.authorizationConsentRepository.save(toEntity(authorizationConsent));
+    evict(authorizationConsent);
   }
 
   @Override
@@ -40,15 +65,37 @@ public class JpaOAuth2AuthorizationConsentService implements OAuth2Authorization
     Assert.notNull(authorizationConsent, "authorizationConsent cannot be null");
     this.authorizationConsentRepository.deleteByRegisteredClientIdAndPrincipalName(
         authorizationConsent.getRegisteredClientId(), authorizationConsent.getPrincipalName());
+    evict(authorizationConsent);
   }
 
   @Override
   public OAuth2AuthorizationConsent findById(String registeredClientId, String principalName) {
     Assert.hasText(registeredClientId, "registeredClientId cannot be empty");
     Assert.hasText(principalName, "principalName cannot be empty");
-    return this.authorizationConsentRepository
-        .findByRegisteredClientIdAndPrincipalName(registeredClientId, principalName)
-        .map(this::toObject).orElse(null);
+    return this.consents.get(cacheKey(registeredClientId, principalName),
+        key -> this.authorizationConsentRepository
+            .findByRegisteredClientIdAndPrincipalName(registeredClientId, principalName)
+            .map(this::toObject))
+        .orElse(null);
+  }
+
+  /**
+   * Drops the consent on every node; the local entry goes first so this node's next request
+   * already reads the new state.
+   */
+  private void evict(OAuth2AuthorizationConsent authorizationConsent) {
+    String cacheKey = cacheKey(authorizationConsent.getRegisteredClientId(),
+        authorizationConsent.getPrincipalName());
+    this.consents.invalidate(cacheKey);
+    this.cacheInvalidationService.publish(CONSENTS_CACHE, cacheKey);
+  }
+
+  /**
+   * Length-prefixes the client id so that no two (client, principal) pairs share a key, whatever
+   * characters they contain.
+   */
+  private static String cacheKey(String registeredClientId, String principalName) {
+    return registeredClientId.length() + ":" + registeredClientId + ":" + principalName;
   }
 
   private OAuth2AuthorizationConsent toObject(AuthorizationConsent authorizationConsent) {
@@ -63,8 +110,7 @@ public class JpaOAuth2AuthorizationConsentService implements OAuth2Authorization
     OAuth2AuthorizationConsent.Builder builder = OAuth2AuthorizationConsent
         .withId(registeredClientId, authorizationConsent.getPrincipalName());
     if (authorizationConsent.getAuthorities() != null) {
-      for (String authority : StringUtils
-          .commaDelimitedListToSet(authorizationConsent.getAuthorities())) {
+      for (String authority : authorizationConsent.getAuthorities()) {
         builder.authority(new SimpleGrantedAuthority(authority));
       }
     }
@@ -77,11 +123,8 @@ public class JpaOAuth2AuthorizationConsentService implements OAuth2Authorization
     entity.setRegisteredClientId(authorizationConsent.getRegisteredClientId());
     entity.setPrincipalName(authorizationConsent.getPrincipalName());
 
-    Set<String> authorities = new HashSet<>();
-    for (GrantedAuthority authority : authorizationConsent.getAuthorities()) {
-      authorities.add(authority.getAuthority());
-    }
-    entity.setAuthorities(StringUtils.collectionToCommaDelimitedString(authorities));
+    entity.setAuthorities(authorizationConsent.getAuthorities().stream()
+        .map(GrantedAuthority::getAuthority).distinct().toArray(String[]::new));
 
     return entity;
   }
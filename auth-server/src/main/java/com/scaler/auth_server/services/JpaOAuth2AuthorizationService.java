@@ -1,9 +1,15 @@
 package com.scaler.auth_server.services;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.OAuth2AccessToken;
@@ -21,76 +27,165 @@ import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
+import com.scaler.auth_server.codec.MetadataCodec;
 import com.scaler.auth_server.models.Authorization;
+import com.scaler.auth_server.models.AuthorizationTokenLookup;
 import com.scaler.auth_server.repositories.AuthorizationRepository;
-import tools.jackson.core.type.TypeReference;
-import tools.jackson.databind.ObjectMapper;
+import com.scaler.auth_server.repositories.AuthorizationTokenLookupRepository;
+import com.scaler.auth_server.utils.TokenDigests;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Component
 public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService {
+  private static final Set<String> LOOKUP_TOKEN_TYPES = Set.of(OAuth2ParameterNames.STATE,
+      OAuth2ParameterNames.CODE, OAuth2ParameterNames.ACCESS_TOKEN,
+      OAuth2ParameterNames.REFRESH_TOKEN, OidcParameterNames.ID_TOKEN,
+      OAuth2ParameterNames.USER_CODE, OAuth2ParameterNames.DEVICE_CODE);
+
   private final AuthorizationRepository authorizationRepository;
+  private final AuthorizationTokenLookupRepository authorizationTokenLookupRepository;
   private final RegisteredClientRepository registeredClientRepository;
-  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final MetadataCodec metadataCodec;
+  private final MeterRegistry meterRegistry;
+  private final Timer conversionTimer;
 
   public JpaOAuth2AuthorizationService(AuthorizationRepository authorizationRepository,
-      RegisteredClientRepository registeredClientRepository) {
+      AuthorizationTokenLookupRepository authorizationTokenLookupRepository,
+      RegisteredClientRepository registeredClientRepository, MetadataCodec metadataCodec,
+      MeterRegistry meterRegistry) {
     Assert.notNull(authorizationRepository, "authorizationRepository cannot be null");
+    Assert.notNull(authorizationTokenLookupRepository,
+        "authorizationTokenLookupRepository cannot be null");
     Assert.notNull(registeredClientRepository, "registeredClientRepository cannot be null");
+    Assert.notNull(metadataCodec, "metadataCodec cannot be null");
+    Assert.notNull(meterRegistry, "meterRegistry cannot be null");
     this.authorizationRepository = authorizationRepository;
+    this.authorizationTokenLookupRepository = authorizationTokenLookupRepository;
     this.registeredClientRepository = registeredClientRepository;
+    this.metadataCodec = metadataCodec;
+    this.meterRegistry = meterRegistry;
+    this.conversionTimer = Timer.builder("auth.authorization.conversion")
+        .description("Time spent rebuilding an authorization from its row")
+        .register(meterRegistry);
   }
 
   @Override
+  @Transactional
   public void save(OAuth2Authorization authorization) {
     Assert.notNull(authorization, "authorization cannot be null");
-    this.authorizationRepository.save(toEntity(authorization));
+    Authorization entity = toEntity(authorization);
+    this.authorizationTokenLookupRepository.deleteByAuthorizationId(entity.getId());
+    this.authorizationRepository.save(entity);
+    this.authorizationTokenLookupRepository.saveAll(toTokenLookups(entity));
   }
 
   @Override
+  @Transactional
   public void remove(OAuth2Authorization authorization) {
     Assert.notNull(authorization, "authorization cannot be null");
+    this.authorizationTokenLookupRepository.deleteByAuthorizationId(authorization.getId());
     this.authorizationRepository.deleteById(authorization.getId());
   }
 
+  /**
+   * Applies a batch of saves and removes in one transaction. Authorizations already stored are
+   * loaded with a single query so the merges need no further reads, new ones are inserted, and
+   * Hibernate sends the rows as JDBC batches. Each authorization may appear at most once.
+   */
+  @Transactional
+  public void writeAll(Collection<OAuth2Authorization> saved, Collection<String> removedIds) {
+    Assert.notNull(saved, "saved cannot be null");
+    Assert.notNull(removedIds, "removedIds cannot be null");
+    Set<String> ids = new HashSet<>(removedIds);
+    saved.forEach(authorization -> ids.add(authorization.getId()));
+    if (ids.isEmpty()) {
+      return;
+    }
+    this.authorizationTokenLookupRepository.deleteByAuthorizationIdIn(ids);
+    if (!removedIds.isEmpty()) {
+      this.authorizationRepository.deleteAllByIdInBatch(removedIds);
+    }
+    if (saved.isEmpty()) {
+      return;
+    }
+
+    List<Authorization> entities = saved.stream().map(this::toEntity).toList();
+    Set<String> existingIds = this.authorizationRepository
+        .findAllById(entities.stream().map(Authorization::getId).toList()).stream()
+        .map(Authorization::getId).collect(Collectors.toSet());
+    List<AuthorizationTokenLookup> tokenLookups = new ArrayList<>();
+    for (Authorization entity : entities) {
+      if (!existingIds.contains(entity.getId())) {
+        entity.markNew();
+      }
+      tokenLookups.addAll(toTokenLookups(entity));
+    }
+    this.authorizationRepository.saveAll(entities);
+    this.authorizationTokenLookupRepository.saveAll(tokenLookups);
+  }
+
   @Override
   public OAuth2Authorization findById(String id) {
     Assert.hasText(id, "id cannot be empty");
-    return this.authorizationRepository.findById(id).map(this::toObject).orElse(null);
+    Timer.Sample sample = Timer.start(this.meterRegistry);
+    Optional<Authorization> result = this.authorizationRepository.findById(id);
+    recordQuery(sample, "find_by_id", "any", result.isPresent());
+    return result.map(this::timedToObject).orElse(null);
   }
 
   @Override
   public OAuth2Authorization findByToken(String token, OAuth2TokenType tokenType) {
     Assert.hasText(token, "token cannot be empty");
 
+    String tokenDigest = TokenDigests.sha256Hex(token);
+    Timer.Sample sample = Timer.start(this.meterRegistry);
     Optional<Authorization> result;
     if (tokenType == null) {
-      result = this.authorizationRepository
-          .findByStateOrAuthorizationCodeValueOrAccessTokenValueOrRefreshTokenValueOrOidcIdTokenValueOrUserCodeValueOrDeviceCodeValue(
-              token);
-    } else if (OAuth2ParameterNames.STATE.equals(tokenType.getValue())) {
-      result = this.authorizationRepository.findByState(token);
-    } else if (OAuth2ParameterNames.CODE.equals(tokenType.getValue())) {
-      result = this.authorizationRepository.findByAuthorizationCodeValue(token);
-    } else if (OAuth2ParameterNames.ACCESS_TOKEN.equals(tokenType.getValue())) {
-      result = this.authorizationRepository.findByAccessTokenValue(token);
-    } else if (OAuth2ParameterNames.REFRESH_TOKEN.equals(tokenType.getValue())) {
-      result = this.authorizationRepository.findByRefreshTokenValue(token);
-    } else if (OidcParameterNames.ID_TOKEN.equals(tokenType.getValue())) {
-      result = this.authorizationRepository.findByOidcIdTokenValue(token);
-    } else if (OAuth2ParameterNames.USER_CODE.equals(tokenType.getValue())) {
-      result = this.authorizationRepository.findByUserCodeValue(token);
-    } else if (OAuth2ParameterNames.DEVICE_CODE.equals(tokenType.getValue())) {
-      result = this.authorizationRepository.findByDeviceCodeValue(token);
+      result = this.authorizationRepository.findByTokenDigest(tokenDigest);
+    } else if (LOOKUP_TOKEN_TYPES.contains(tokenType.getValue())) {
+      result = this.authorizationRepository.findByTokenDigestAndTokenType(tokenDigest,
+          tokenType.getValue());
     } else {
       result = Optional.empty();
     }
+    recordQuery(sample, "find_by_token", tokenTypeTag(tokenType), result.isPresent());
+
+    return result.map(this::timedToObject).orElse(null);
+  }
+
+  /**
+   * Records a lookup in {@code auth.authorization.query} and counts the ones that found nothing,
+   * which for token lookups means an unknown, revoked or reaped token.
+   */
+  private void recordQuery(Timer.Sample sample, String operation, String tokenType,
+      boolean found) {
+    sample.stop(Timer.builder("auth.authorization.query")
+        .description("Latency of authorization lookups in the database")
+        .tags("operation", operation, "token_type", tokenType, "outcome",
+            found ? "found" : "missing")
+        .register(this.meterRegistry));
+    if (!found) {
+      this.meterRegistry.counter("auth.authorization.lookup.misses", "operation", operation,
+          "token_type", tokenType).increment();
+    }
+  }
+
+  private static String tokenTypeTag(OAuth2TokenType tokenType) {
+    if (tokenType == null) {
+      return "any";
+    }
+    return LOOKUP_TOKEN_TYPES.contains(tokenType.getValue()) ? tokenType.getValue() : "other";
+  }
 
-    return result.map(this::toObject).orElse(null);
+  private OAuth2Authorization timedToObject(Authorization entity) {
+    return this.conversionTimer.record(() -> toObject(entity));
   }
 
-  private OAuth2Authorization toObject(Authorization entity) {
+  OAuth2Authorization toObject(Authorization entity) {
     RegisteredClient registeredClient =
         this.registeredClientRepository.findById(entity.getRegisteredClientId());
     if (registeredClient == null) {
@@ -155,7 +250,7 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
     return builder.build();
   }
 
-  private Authorization toEntity(OAuth2Authorization authorization) {
+  Authorization toEntity(OAuth2Authorization authorization) {
     Authorization entity = new Authorization();
     entity.setId(authorization.getId());
     entity.setRegisteredClientId(authorization.getRegisteredClientId());
@@ -203,9 +298,43 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
     setTokenValues(deviceCode, entity::setDeviceCodeValue, entity::setDeviceCodeIssuedAt,
         entity::setDeviceCodeExpiresAt, entity::setDeviceCodeMetadata);
 
+    entity.setExpiresAt(latest(entity.getAuthorizationCodeExpiresAt(),
+        entity.getAccessTokenExpiresAt(), entity.getRefreshTokenExpiresAt(),
+        entity.getOidcIdTokenExpiresAt(), entity.getUserCodeExpiresAt(),
+        entity.getDeviceCodeExpiresAt()));
+
     return entity;
   }
 
+  private List<AuthorizationTokenLookup> toTokenLookups(Authorization entity) {
+    List<AuthorizationTokenLookup> tokenLookups = new ArrayList<>(LOOKUP_TOKEN_TYPES.size());
+    addTokenLookup(tokenLookups, entity, OAuth2ParameterNames.STATE, entity.getState());
+    addTokenLookup(tokenLookups, entity, OAuth2ParameterNames.CODE,
+        entity.getAuthorizationCodeValue());
+    addTokenLookup(tokenLookups, entity, OAuth2ParameterNames.ACCESS_TOKEN,
+        entity.getAccessTokenValue());
+    addTokenLookup(tokenLookups, entity, OAuth2ParameterNames.REFRESH_TOKEN,
+        entity.getRefreshTokenValue());
+    addTokenLookup(tokenLookups, entity, OidcParameterNames.ID_TOKEN,
+        entity.getOidcIdTokenValue());
+    addTokenLookup(tokenLookups, entity, OAuth2ParameterNames.USER_CODE,
+        entity.getUserCodeValue());
+    addTokenLookup(tokenLookups, entity, OAuth2ParameterNames.DEVICE_CODE,
+        entity.getDeviceCodeValue());
+    return tokenLookups;
+  }
+
+  private static void addTokenLookup(List<AuthorizationTokenLookup> tokenLookups,
+      Authorization entity, String tokenType, String tokenValue) {
+    if (tokenValue != null) {
+      AuthorizationTokenLookup tokenLookup = new AuthorizationTokenLookup();
+      tokenLookup.setTokenDigest(TokenDigests.sha256Hex(tokenValue));
+      tokenLookup.setTokenType(tokenType);
+      tokenLookup.setAuthorizationId(entity.getId());
+      tokenLookups.add(tokenLookup);
+    }
+  }
+
   private void setTokenValues(OAuth2Authorization.Token<?> token,
       Consumer<String> tokenValueConsumer, Consumer<Instant> issuedAtConsumer,
       Consumer<Instant> expiresAtConsumer, Consumer<String> metadataConsumer) {
@@ -218,9 +347,19 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
     }
   }
 
+  private static Instant latest(Instant... instants) {
+    Instant latest = null;
+    for (Instant instant : instants) {
+      if (instant != null && (latest == null || instant.isAfter(latest))) {
+        latest = instant;
+      }
+    }
+    return latest;
+  }
+
   private Map<String, Object> parseMap(String data) {
     try {
-      return this.objectMapper.readValue(data, new TypeReference<Map<String, Object>>() {});
+      return this.metadataCodec.decode(data);
     } catch (Exception ex) {
       throw new IllegalArgumentException(ex.getMessage(), ex);
     }
@@ -228,7 +367,7 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
 
   private String writeMap(Map<String, Object> metadata) {
     try {
-      return this.objectMapper.writeValueAsString(metadata);
+      return this.metadataCodec.encode(metadata);
     } catch (Exception ex) {
       throw new IllegalArgumentException(ex.getMessage(), ex);
     }
@@ -3,7 +3,9 @@ package com.scaler.auth_server.services;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
@@ -13,40 +15,147 @@ import org.springframework.security.oauth2.server.authorization.settings.TokenSe
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.scaler.auth_server.config.ClientCacheProperties;
 import com.scaler.auth_server.models.Client;
 import com.scaler.auth_server.repositories.ClientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import tools.jackson.core.type.TypeReference;
 import tools.jackson.databind.ObjectMapper;
 
 @Component
 public class JpaRegisteredClientRepository implements RegisteredClientRepository {
+  static final String CLIENTS_BY_ID_CACHE = "registered-client.id";
+  static final String CLIENTS_BY_CLIENT_ID_CACHE = "registered-client.client-id";
+
   private final ClientRepository clientRepository;
+  private final CacheInvalidationService cacheInvalidationService;
+  private final MeterRegistry meterRegistry;
   private final ObjectMapper objectMapper = new ObjectMapper();
+  private final Cache<String, RegisteredClient> clientsById;
+  private final Cache<String, RegisteredClient> clientsByClientId;
 
-  public JpaRegisteredClientRepository(ClientRepository clientRepository) {
+  public JpaRegisteredClientRepository(ClientRepository clientRepository,
+      CacheInvalidationService cacheInvalidationService,
+      ClientCacheProperties clientCacheProperties, MeterRegistry meterRegistry) {
     Assert.notNull(clientRepository, "clientRepository cannot be null");
+    Assert.notNull(cacheInvalidationService, "cacheInvalidationService cannot be null");
+    Assert.notNull(clientCacheProperties, "clientCacheProperties cannot be null");
+    Assert.notNull(meterRegistry, "meterRegistry cannot be null");
     this.clientRepository = clientRepository;
+    this.cacheInvalidationService = cacheInvalidationService;
+    this.meterRegistry = meterRegistry;
+    this.clientsById = CaffeineCacheMetrics.monitor(meterRegistry,
+        newClientCache(clientCacheProperties), "registeredClientsById");
+    this.clientsByClientId = CaffeineCacheMetrics.monitor(meterRegistry,
+        newClientCache(clientCacheProperties), "registeredClientsByClientId");
+    cacheInvalidationService.register(CLIENTS_BY_ID_CACHE, this::evictById);
+    cacheInvalidationService.register(CLIENTS_BY_CLIENT_ID_CACHE, this::evictByClientId);
   }
 
   @Override
   public void save(RegisteredClient registeredClient) {
     Assert.notNull(registeredClient, "registeredClient cannot be null");
     this.clientRepository.save(toEntity(registeredClient));
+    evictById(registeredClient.getId());
+    evictByClientId(registeredClient.getClientId());
+    this.cacheInvalidationService.publish(CLIENTS_BY_ID_CACHE, registeredClient.getId());
+    this.cacheInvalidationService.publish(CLIENTS_BY_CLIENT_ID_CACHE,
+        registeredClient.getClientId());
+  }
+
+  /**
+   * Inserts a client that does not exist yet, without the read-before-write of {@link #save} and
+   * without publishing invalidations, since nothing can be cached for an unknown client.
+   *
+   * @return the persisted entity
+   */
+  Client insert(RegisteredClient registeredClient) {
+    Assert.notNull(registeredClient, "registeredClient cannot be null");
+    return this.clientRepository.save(toNewEntity(registeredClient));
+  }
+
+  /**
+   * As {@link #insert} for many clients. Runs in the caller's transaction so the inserts are
+   * flushed as JDBC batches.
+   */
+  List<Client> insertAll(List<RegisteredClient> registeredClients) {
+    List<Client> entities = new ArrayList<>(registeredClients.size());
+    for (RegisteredClient registeredClient : registeredClients) {
+      entities.add(toNewEntity(registeredClient));
+    }
+    return this.clientRepository.saveAll(entities);
   }
 
   @Override
   public RegisteredClient findById(String id) {
     Assert.hasText(id, "id cannot be empty");
-    return this.clientRepository.findById(id).map(this::toObject).orElse(null);
+    return this.clientsById.get(id, key -> load("id", () -> this.clientRepository.findById(key))
+        .map(this::cacheByClientId).orElse(null));
   }
 
   @Override
   public RegisteredClient findByClientId(String clientId) {
     Assert.hasText(clientId, "clientId cannot be empty");
-    return this.clientRepository.findByClientId(clientId).map(this::toObject).orElse(null);
+    return this.clientsByClientId.get(clientId,
+        key -> load("client_id", () -> this.clientRepository.findByClientId(key))
+            .map(this::cacheById).orElse(null));
+  }
+
+  /**
+   * Reads and converts a client on a cache miss, timed in {@code auth.client.lookup}. Unknown
+   * clients are not cached, so each of their lookups reaches the database and is counted.
+   */
+  private Optional<RegisteredClient> load(String lookup, Supplier<Optional<Client>> query) {
+    Timer.Sample sample = Timer.start(this.meterRegistry);
+    Optional<RegisteredClient> registeredClient = query.get().map(this::toObject);
+    boolean found = registeredClient.isPresent();
+    sample.stop(Timer.builder("auth.client.lookup")
+        .description("Latency of loading a client from the database on a cache miss")
+        .tags("lookup", lookup, "outcome", found ? "found" : "missing")
+        .register(this.meterRegistry));
+    if (!found) {
+      this.meterRegistry.counter("auth.client.lookup.misses", "lookup", lookup).increment();
+    }
+    return registeredClient;
+  }
+
+  private void evictById(String id) {
+    RegisteredClient cached = this.clientsById.getIfPresent(id);
+    this.clientsById.invalidate(id);
+    if (cached != null) {
+      this.clientsByClientId.invalidate(cached.getClientId());
+    }
   }
 
-  private RegisteredClient toObject(Client client) {
+  private void evictByClientId(String clientId) {
+    RegisteredClient cached = this.clientsByClientId.getIfPresent(clientId);
+    this.clientsByClientId.invalidate(clientId);
+    if (cached != null) {
+      this.clientsById.invalidate(cached.getId());
+    }
+  }
+
+  private RegisteredClient cacheById(RegisteredClient registeredClient) {
+    this.clientsById.put(registeredClient.getId(), registeredClient);
+    return registeredClient;
+  }
+
+  private RegisteredClient cacheByClientId(RegisteredClient registeredClient) {
+    this.clientsByClientId.put(registeredClient.getClientId(), registeredClient);
+    return registeredClient;
+  }
+
+  private static Cache<String, RegisteredClient> newClientCache(
+      ClientCacheProperties clientCacheProperties) {
+    return Caffeine.newBuilder().maximumSize(clientCacheProperties.maximumSize())
+        .expireAfterWrite(clientCacheProperties.timeToLive()).recordStats().build();
+  }
+
+  RegisteredClient toObject(Client client) {
     Set<String> clientAuthenticationMethods =
         StringUtils.commaDelimitedListToSet(client.getClientAuthenticationMethods());
     Set<String> authorizationGrantTypes =
@@ -78,7 +187,7 @@ public class JpaRegisteredClientRepository implements RegisteredClientRepository
     return builder.build();
   }
 
-  private Client toEntity(RegisteredClient registeredClient) {
+  Client toEntity(RegisteredClient registeredClient) {
     List<String> clientAuthenticationMethods =
         new ArrayList<>(registeredClient.getClientAuthenticationMethods().size());
     registeredClient.getClientAuthenticationMethods()
@@ -112,6 +221,12 @@ public class JpaRegisteredClientRepository implements RegisteredClientRepository
     return entity;
   }
 
+  private Client toNewEntity(RegisteredClient registeredClient) {
+    Client entity = toEntity(registeredClient);
+    entity.markNew();
+    return entity;
+  }
+
   private Map<String, Object> parseMap(String data) {
     try {
       return this.objectMapper.readValue(data, new TypeReference<Map<String, Object>>() {});
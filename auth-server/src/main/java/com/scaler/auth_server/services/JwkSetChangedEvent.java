@@ -0,0 +1,22 @@
+package com.scaler.auth_server.services;
+
+import java.util.Set;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when a node's view of the signing keys changes, that is when a key is added, removed
+ * or a different key becomes active.
+ */
+public class JwkSetChangedEvent extends ApplicationEvent {
+
+  private final Set<String> keyIds;
+
+  public JwkSetChangedEvent(Object source, Set<String> keyIds) {
+    super(source);
+    this.keyIds = keyIds;
+  }
+
+  public Set<String> getKeyIds() {
+    return this.keyIds;
+  }
+}
@@ -0,0 +1,284 @@
+package com.scaler.auth_server.services;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jose.jws.JwsAlgorithm;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWEObject;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.DirectDecrypter;
+import com.nimbusds.jose.crypto.DirectEncrypter;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.scaler.auth_server.config.JwkProperties;
+import com.scaler.auth_server.models.JwkKey;
+import com.scaler.auth_server.repositories.JwkKeyRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Signing keys persisted in {@code jwk_key} and shared by every node, so tokens survive restarts
+ * and verify on any replica. A key is only generated when none is active (first boot) or when
+ * the active one is due for rotation. A successor is first published as {@code NEXT} for
+ * {@code activation-delay} so every node can verify it before anyone signs with it, and retired
+ * keys stay published for {@code retention}. Each refresh publishes the keys as one immutable
+ * snapshot, so a token is always signed with the key its header algorithm was taken from.
+ */
+@Slf4j
+@Service
+public class JwkSetService {
+  private final JwkKeyRepository jwkKeyRepository;
+  private final JwkProperties jwkProperties;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final byte[] encryptionKey;
+  private volatile KeySnapshot keys;
+
+  public JwkSetService(JwkKeyRepository jwkKeyRepository, JwkProperties jwkProperties,
+      PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher) {
+    Assert.notNull(jwkKeyRepository, "jwkKeyRepository cannot be null");
+    Assert.notNull(jwkProperties, "jwkProperties cannot be null");
+    Assert.notNull(eventPublisher, "eventPublisher cannot be null");
+    this.jwkKeyRepository = jwkKeyRepository;
+    this.jwkProperties = jwkProperties;
+    this.eventPublisher = eventPublisher;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.encryptionKey = StringUtils.hasText(jwkProperties.encryptionKey())
+        ? Base64.getDecoder().decode(jwkProperties.encryptionKey())
+        : null;
+  }
+
+  @PostConstruct
+  void init() {
+    rotateIfDue();
+    refresh();
+  }
+
+  @Scheduled(fixedDelayString = "${auth-server.jwk.refresh-interval:1m}",
+      initialDelayString = "${auth-server.jwk.refresh-interval:1m}")
+  public void maintain() {
+    rotateIfDue();
+    refresh();
+  }
+
+  /**
+   * Every published key (next, active and retired), for the JWK Set endpoint and token
+   * verification.
+   */
+  public JWKSource<SecurityContext> verificationKeys() {
+    return (jwkSelector, context) -> jwkSelector.select(this.keys.jwkSet());
+  }
+
+  /**
+   * Signs with the current signing key. The header algorithm is replaced with the one of the key
+   * read in the same snapshot, so a rotation published between building the header and signing
+   * cannot pair an algorithm with a key of another type.
+   */
+  public JwtEncoder signingEncoder() {
+    return parameters -> {
+      KeySnapshot keys = this.keys;
+      JwsHeader.Builder header = parameters.getJwsHeader() != null
+          ? JwsHeader.from(parameters.getJwsHeader())
+          : JwsHeader.with(keys.signingAlgorithm());
+      return keys.signingEncoder().encode(JwtEncoderParameters
+          .from(header.algorithm(keys.signingAlgorithm()).build(), parameters.getClaims()));
+    };
+  }
+
+  /**
+   * Algorithm of the current signing key, which lags behind the configured one until the key
+   * rotates.
+   */
+  public JwsAlgorithm getSigningAlgorithm() {
+    return this.keys.signingAlgorithm();
+  }
+
+  /**
+   * Distinct algorithms of all published keys, as advertised by OIDC discovery.
+   */
+  public List<String> getPublishedAlgorithms() {
+    return this.keys.publishedAlgorithms();
+  }
+
+  public static JWK generateKey(JwkProperties.Algorithm algorithm) {
+    String kid = UUID.randomUUID().toString();
+    JWSAlgorithm jwsAlgorithm = algorithm.jwsAlgorithm();
+    try {
+      return switch (algorithm) {
+        case RS256 -> new RSAKeyGenerator(2048).keyUse(KeyUse.SIGNATURE).algorithm(jwsAlgorithm)
+            .keyID(kid).generate();
+        case ES256 -> new ECKeyGenerator(Curve.P_256).keyUse(KeyUse.SIGNATURE)
+            .algorithm(jwsAlgorithm).keyID(kid).generate();
+        case EDDSA -> new OctetKeyPairGenerator(Curve.Ed25519).keyUse(KeyUse.SIGNATURE)
+            .algorithm(jwsAlgorithm).keyID(kid).generate();
+      };
+    } catch (JOSEException ex) {
+      throw new IllegalStateException("Failed to generate signing key", ex);
+    }
+  }
+
+  void refresh() {
+    List<JWK> jwks = new ArrayList<>();
+    JWK signingKey = null;
+    for (JwkKey jwkKey : this.jwkKeyRepository.findAllByOrderByCreatedAtDesc()) {
+      JWK jwk = readJwk(jwkKey.getJwk());
+      jwks.add(jwk);
+      if (signingKey == null && jwkKey.getStatus() == JwkKey.Status.ACTIVE) {
+        signingKey = jwk;
+      }
+    }
+    Assert.state(signingKey != null, "No active signing key in jwk_key");
+    KeySnapshot previous = this.keys;
+    JWKSet jwkSet = new JWKSet(jwks);
+    // Only the signing key, since the encoder rejects ambiguous key selections
+    this.keys = new KeySnapshot(jwkSet, signingKey,
+        toJwsAlgorithm(signingKey.getAlgorithm().getName()),
+        new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(signingKey))),
+        jwks.stream().map(jwk -> jwk.getAlgorithm().getName()).distinct().toList());
+
+    Set<String> keyIds = keyIds(jwkSet);
+    if (previous != null && (!keyIds.equals(keyIds(previous.jwkSet()))
+        || !previous.signingKey().getKeyID().equals(signingKey.getKeyID()))) {
+      this.eventPublisher.publishEvent(new JwkSetChangedEvent(this, keyIds));
+    }
+  }
+
+  private static Set<String> keyIds(JWKSet jwkSet) {
+    return jwkSet.getKeys().stream().map(JWK::getKeyID).collect(Collectors.toSet());
+  }
+
+  void rotateIfDue() {
+    this.transactionTemplate.executeWithoutResult(status -> {
+      Instant now = Instant.now();
+      // Locking the active key serializes rotation across nodes
+      List<JwkKey> activeKeys =
+          this.jwkKeyRepository.findByStatusOrderByCreatedAtDesc(JwkKey.Status.ACTIVE);
+      if (activeKeys.isEmpty()) {
+        log.info("No active signing key, generating one");
+        this.jwkKeyRepository.save(newKey(JwkKey.Status.ACTIVE, now));
+        return;
+      }
+      // Concurrent first boots can each insert an active key; keep the newest
+      activeKeys.stream().skip(1).forEach(jwkKey -> retire(jwkKey, now));
+      JwkKey activeKey = activeKeys.getFirst();
+
+      List<JwkKey> nextKeys =
+          this.jwkKeyRepository.findByStatusOrderByCreatedAtDesc(JwkKey.Status.NEXT);
+      if (nextKeys.isEmpty()) {
+        boolean expired =
+            !activeKey.getActivatedAt().plus(this.jwkProperties.rotationPeriod()).isAfter(now);
+        boolean algorithmChanged = !activeKey.getAlgorithm()
+            .equals(this.jwkProperties.algorithm().jwsAlgorithm().getName());
+        if (expired || algorithmChanged) {
+          log.info("Signing key {} is due for rotation, publishing its successor",
+              activeKey.getKid());
+          this.jwkKeyRepository.save(newKey(JwkKey.Status.NEXT, now));
+        }
+      } else {
+        JwkKey nextKey = nextKeys.getFirst();
+        if (!nextKey.getCreatedAt().plus(this.jwkProperties.activationDelay()).isAfter(now)) {
+          log.info("Activating signing key {}, retiring {}", nextKey.getKid(),
+              activeKey.getKid());
+          nextKey.setStatus(JwkKey.Status.ACTIVE);
+          nextKey.setActivatedAt(now);
+          retire(activeKey, now);
+        }
+      }
+      this.jwkKeyRepository.deleteByStatusAndRetiredAtBefore(JwkKey.Status.RETIRED,
+          now.minus(this.jwkProperties.retention()));
+    });
+  }
+
+  private JwkKey newKey(JwkKey.Status status, Instant now) {
+    JWK jwk = generateKey(this.jwkProperties.algorithm());
+    JwkKey jwkKey = new JwkKey();
+    jwkKey.setKid(jwk.getKeyID());
+    jwkKey.setAlgorithm(jwk.getAlgorithm().getName());
+    jwkKey.setJwk(writeJwk(jwk));
+    jwkKey.setStatus(status);
+    jwkKey.setCreatedAt(now);
+    if (status == JwkKey.Status.ACTIVE) {
+      jwkKey.setActivatedAt(now);
+    }
+    return jwkKey;
+  }
+
+  private static JwsAlgorithm toJwsAlgorithm(String name) {
+    // SignatureAlgorithm has no EdDSA constant; NimbusJwtEncoder only needs the name
+    SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.from(name);
+    return signatureAlgorithm != null ? signatureAlgorithm : () -> name;
+  }
+
+  private static void retire(JwkKey jwkKey, Instant now) {
+    jwkKey.setStatus(JwkKey.Status.RETIRED);
+    jwkKey.setRetiredAt(now);
+  }
+
+  private String writeJwk(JWK jwk) {
+    String json = jwk.toJSONString();
+    if (this.encryptionKey == null) {
+      return json;
+    }
+    try {
+      JWEObject jwe = new JWEObject(new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A256GCM),
+          new Payload(json));
+      jwe.encrypt(new DirectEncrypter(this.encryptionKey));
+      return jwe.serialize();
+    } catch (JOSEException ex) {
+      throw new IllegalStateException("Failed to encrypt signing key", ex);
+    }
+  }
+
+  private JWK readJwk(String value) {
+    try {
+      if (value.startsWith("{")) {
+        return JWK.parse(value);
+      }
+      Assert.state(this.encryptionKey != null,
+          "Signing keys are encrypted but auth-server.jwk.encryption-key is not set");
+      JWEObject jwe = JWEObject.parse(value);
+      jwe.decrypt(new DirectDecrypter(this.encryptionKey));
+      return JWK.parse(jwe.getPayload().toString());
+    } catch (ParseException | JOSEException ex) {
+      throw new IllegalStateException("Failed to read signing key", ex);
+    }
+  }
+
+  /**
+   * The keys as of one refresh, replaced as a whole.
+   */
+  private record KeySnapshot(JWKSet jwkSet, JWK signingKey, JwsAlgorithm signingAlgorithm,
+      JwtEncoder signingEncoder, List<String> publishedAlgorithms) {
+  }
+
+}
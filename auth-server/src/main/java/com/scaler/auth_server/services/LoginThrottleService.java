@@ -0,0 +1,117 @@
+package com.scaler.auth_server.services;
+
+import java.time.Duration;
+import java.util.Locale;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import com.scaler.auth_server.config.LoginThrottleProperties;
+import com.scaler.auth_server.exception.TooManyLoginAttemptsException;
+import com.scaler.auth_server.throttle.BucketLimit;
+import com.scaler.auth_server.throttle.TokenBucketStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rejects login attempts from an exhausted address or account before any user lookup or password
+ * hashing, so credential stuffing costs a bucket update instead of a hash. The address is checked
+ * first: an address spraying many emails is stopped without creating a bucket per email.
+ */
+@Slf4j
+@Service
+public class LoginThrottleService {
+  private static final String MESSAGE = "too many login attempts, try again later";
+
+  private final TokenBucketStore tokenBucketStore;
+  private final boolean enabled;
+  private final BucketLimit accountLimit;
+  private final BucketLimit addressLimit;
+  private final Counter accountThrottled;
+  private final Counter addressThrottled;
+
+  public LoginThrottleService(TokenBucketStore tokenBucketStore,
+      LoginThrottleProperties loginThrottleProperties, MeterRegistry meterRegistry) {
+    Assert.notNull(tokenBucketStore, "tokenBucketStore cannot be null");
+    Assert.notNull(loginThrottleProperties, "loginThrottleProperties cannot be null");
+    Assert.notNull(meterRegistry, "meterRegistry cannot be null");
+    this.tokenBucketStore = tokenBucketStore;
+    this.enabled = loginThrottleProperties.enabled();
+    this.accountLimit = loginThrottleProperties.accountLimit();
+    this.addressLimit = loginThrottleProperties.addressLimit();
+    this.accountThrottled = throttledCounter(meterRegistry, "account");
+    this.addressThrottled = throttledCounter(meterRegistry, "address");
+  }
+
+  /**
+   * Takes an attempt from the buckets of the address and the account.
+   *
+   * @throws TooManyLoginAttemptsException when either bucket is empty
+   */
+  public void checkAllowed(String email, String address) {
+    if (!this.enabled) {
+      return;
+    }
+    String addressKey = addressKey(address);
+    Duration retryAfter = this.tokenBucketStore.tryConsume(addressKey, this.addressLimit);
+    if (!retryAfter.isZero()) {
+      this.addressThrottled.increment();
+      throw new TooManyLoginAttemptsException(MESSAGE, retryAfter);
+    }
+    retryAfter = this.tokenBucketStore.tryConsume(accountKey(email), this.accountLimit);
+    if (!retryAfter.isZero()) {
+      // The attempt is not made, so it does not count against the address
+      this.tokenBucketStore.refund(addressKey, this.addressLimit);
+      this.accountThrottled.increment();
+      log.debug("Throttling logins of {}", email);
+      throw new TooManyLoginAttemptsException(MESSAGE, retryAfter);
+    }
+  }
+
+  /**
+   * Gives back the attempts taken by {@link #checkAllowed}, so successful logins drain neither
+   * bucket and the many users behind one address (NAT, corporate proxy) are only limited by their
+   * failures.
+   */
+  public void loginSucceeded(String email, String address) {
+    if (!this.enabled) {
+      return;
+    }
+    this.tokenBucketStore.refund(addressKey(address), this.addressLimit);
+    this.tokenBucketStore.refund(accountKey(email), this.accountLimit);
+  }
+
+  /**
+   * Takes a second token from the address for a failed attempt, so an address absorbs half its
+   * capacity in failures and a guess costs more than a successful login can give back.
+   */
+  public void loginFailed(String address) {
+    if (!this.enabled) {
+      return;
+    }
+    this.tokenBucketStore.tryConsume(addressKey(address), this.addressLimit);
+  }
+
+  @Scheduled(fixedDelayString = "${auth-server.login-throttle.cleanup-interval:10m}",
+      initialDelayString = "${auth-server.login-throttle.cleanup-interval:10m}")
+  public void evictExpired() {
+    if (this.enabled) {
+      this.tokenBucketStore.evictExpired();
+    }
+  }
+
+  private static String accountKey(String email) {
+    // Case variants of an email reach the same account
+    return "account:" + (email != null ? email.trim().toLowerCase(Locale.ROOT) : "");
+  }
+
+  private static String addressKey(String address) {
+    return "address:" + address;
+  }
+
+  private static Counter throttledCounter(MeterRegistry meterRegistry, String limit) {
+    return Counter.builder("auth.login.throttled")
+        .description("Login attempts rejected before authentication").tag("limit", limit)
+        .register(meterRegistry);
+  }
+}
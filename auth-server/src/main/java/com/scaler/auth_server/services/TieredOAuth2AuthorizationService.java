@@ -0,0 +1,309 @@
+package com.scaler.auth_server.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2DeviceCode;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.core.OAuth2Token;
+import org.springframework.security.oauth2.core.OAuth2UserCode;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.endpoint.OidcParameterNames;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationCode;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.scaler.auth_server.config.TokenStoreProperties;
+import com.scaler.auth_server.services.AuthorizationWriteBehindQueue.PendingAuthorization;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link OAuth2AuthorizationService} keeping short-lived authorizations (state, authorization code,
+ * device and user codes) in an in-memory tier that evicts them when their artifacts expire. Only
+ * authorizations carrying an access or refresh token reach {@link JpaOAuth2AuthorizationService},
+ * optionally through a group-committing {@link AuthorizationWriteBehindQueue} whose pending writes
+ * take precedence over both tiers on reads.
+ */
+@Primary
+@Component
+public class TieredOAuth2AuthorizationService
+    implements OAuth2AuthorizationService, DisposableBean {
+  private static final List<Class<? extends OAuth2Token>> TOKEN_CLASSES =
+      List.of(OAuth2AuthorizationCode.class, OAuth2AccessToken.class, OAuth2RefreshToken.class,
+          OidcIdToken.class, OAuth2UserCode.class, OAuth2DeviceCode.class);
+
+  private final JpaOAuth2AuthorizationService durableAuthorizationService;
+  private final TokenStoreProperties tokenStoreProperties;
+  private final Map<String, String> hotTokenIndex = new ConcurrentHashMap<>();
+  private final Cache<String, HotAuthorization> hotAuthorizations;
+  private final AuthorizationWriteBehindQueue writeBehindQueue;
+  private final MeterRegistry meterRegistry;
+
+  public TieredOAuth2AuthorizationService(
+      JpaOAuth2AuthorizationService durableAuthorizationService,
+      TokenStoreProperties tokenStoreProperties, MeterRegistry meterRegistry) {
+    Assert.notNull(durableAuthorizationService, "durableAuthorizationService cannot be null");
+    Assert.notNull(tokenStoreProperties, "tokenStoreProperties cannot be null");
+    Assert.notNull(meterRegistry, "meterRegistry cannot be null");
+    this.durableAuthorizationService = durableAuthorizationService;
+    this.tokenStoreProperties = tokenStoreProperties;
+    this.meterRegistry = meterRegistry;
+    this.hotAuthorizations = Caffeine.newBuilder()
+        .maximumSize(tokenStoreProperties.hotTierMaximumSize())
+        .expireAfter(new HotAuthorizationExpiry(tokenStoreProperties.hotTierDefaultTimeToLive()))
+        .executor(Runnable::run).removalListener(this::onHotAuthorizationRemoved).build();
+    this.writeBehindQueue = tokenStoreProperties.writeBehind()
+        ? new AuthorizationWriteBehindQueue(durableAuthorizationService,
+            tokenStoreProperties.writeBehindBatchSize(),
+            tokenStoreProperties.writeBehindCapacity(), meterRegistry)
+        : null;
+  }
+
+  @Override
+  public void save(OAuth2Authorization authorization) {
+    Assert.notNull(authorization, "authorization cannot be null");
+    Timer.Sample sample = Timer.start(this.meterRegistry);
+    boolean hotTierEnabled = this.tokenStoreProperties.hotTierEnabled();
+    if (hotTierEnabled && !isDurable(authorization)) {
+      putHotAuthorization(authorization);
+      sample.stop(storeTimer("save", "hot"));
+      return;
+    }
+    if (this.writeBehindQueue != null) {
+      this.writeBehindQueue.save(authorization);
+    } else {
+      this.durableAuthorizationService.save(authorization);
+    }
+    if (hotTierEnabled) {
+      this.hotAuthorizations.invalidate(authorization.getId());
+    }
+    sample.stop(storeTimer("save", durableTier()));
+  }
+
+  @Override
+  public void remove(OAuth2Authorization authorization) {
+    Assert.notNull(authorization, "authorization cannot be null");
+    Timer.Sample sample = Timer.start(this.meterRegistry);
+    if (this.tokenStoreProperties.hotTierEnabled()
+        && this.hotAuthorizations.asMap().remove(authorization.getId()) != null) {
+      sample.stop(storeTimer("remove", "hot"));
+      return; // never left the hot tier
+    }
+    if (this.writeBehindQueue != null) {
+      this.writeBehindQueue.remove(authorization);
+    } else {
+      this.durableAuthorizationService.remove(authorization);
+    }
+    sample.stop(storeTimer("remove", durableTier()));
+  }
+
+  /**
+   * Drops in-memory authorizations matching the filter and queues removes for matching pending
+   * writes, so a bulk delete in the database is not undone by writes that have not committed yet.
+   */
+  public void removeMatching(Predicate<OAuth2Authorization> filter) {
+    Assert.notNull(filter, "filter cannot be null");
+    if (this.tokenStoreProperties.hotTierEnabled()) {
+      this.hotAuthorizations.asMap().values()
+          .removeIf(hotAuthorization -> filter.test(hotAuthorization.authorization()));
+    }
+    if (this.writeBehindQueue != null) {
+      this.writeBehindQueue.removeMatching(filter);
+    }
+  }
+
+  @Override
+  public OAuth2Authorization findById(String id) {
+    Assert.hasText(id, "id cannot be empty");
+    if (this.writeBehindQueue != null) {
+      PendingAuthorization pending = this.writeBehindQueue.findById(id);
+      if (pending != null) {
+        return pending.removed() ? null : pending.authorization();
+      }
+    }
+    HotAuthorization hotAuthorization = this.hotAuthorizations.getIfPresent(id);
+    if (hotAuthorization != null) {
+      return hotAuthorization.authorization();
+    }
+    return this.durableAuthorizationService.findById(id);
+  }
+
+  @Override
+  public OAuth2Authorization findByToken(String token, OAuth2TokenType tokenType) {
+    Assert.hasText(token, "token cannot be empty");
+    if (this.writeBehindQueue != null) {
+      PendingAuthorization pending = this.writeBehindQueue.findByToken(token);
+      if (pending != null) {
+        if (pending.removed()) {
+          return null;
+        }
+        if (hasToken(pending.authorization(), token, tokenType)) {
+          return pending.authorization();
+        }
+      }
+    }
+    String id = this.hotTokenIndex.get(token);
+    if (id != null) {
+      HotAuthorization hotAuthorization = this.hotAuthorizations.getIfPresent(id);
+      if (hotAuthorization != null && hasToken(hotAuthorization.authorization(), token, tokenType)) {
+        return hotAuthorization.authorization();
+      }
+    }
+    return this.durableAuthorizationService.findByToken(token, tokenType);
+  }
+
+  @Override
+  public void destroy() throws InterruptedException {
+    if (this.writeBehindQueue != null) {
+      this.writeBehindQueue.close();
+    }
+  }
+
+  /**
+   * Time the caller waits for a save or remove, commit included unless it is queued.
+   */
+  private Timer storeTimer(String operation, String tier) {
+    return Timer.builder("auth.authorization.store")
+        .description("Latency of authorization saves and removes as seen by the caller")
+        .tags("operation", operation, "tier", tier).register(this.meterRegistry);
+  }
+
+  private String durableTier() {
+    return this.writeBehindQueue != null ? "queue" : "database";
+  }
+
+  private void putHotAuthorization(OAuth2Authorization authorization) {
+    HotAuthorization hotAuthorization = new HotAuthorization(authorization);
+    List<String> tokenValues = tokenValues(authorization);
+    // Index the new tokens before dropping the replaced ones so lookups never miss in between
+    tokenValues.forEach(tokenValue -> this.hotTokenIndex.put(tokenValue, authorization.getId()));
+    HotAuthorization previous =
+        this.hotAuthorizations.asMap().put(authorization.getId(), hotAuthorization);
+    if (previous != null) {
+      tokenValues(previous.authorization()).stream()
+          .filter(tokenValue -> !tokenValues.contains(tokenValue))
+          .forEach(tokenValue -> this.hotTokenIndex.remove(tokenValue, authorization.getId()));
+    }
+  }
+
+  private void onHotAuthorizationRemoved(String id, HotAuthorization hotAuthorization,
+      RemovalCause cause) {
+    if (cause != RemovalCause.REPLACED && hotAuthorization != null) {
+      tokenValues(hotAuthorization.authorization())
+          .forEach(tokenValue -> this.hotTokenIndex.remove(tokenValue, id));
+    }
+  }
+
+  private static boolean isDurable(OAuth2Authorization authorization) {
+    return authorization.getAccessToken() != null || authorization.getRefreshToken() != null;
+  }
+
+  static List<String> tokenValues(OAuth2Authorization authorization) {
+    List<String> tokenValues = new ArrayList<>(TOKEN_CLASSES.size() + 1);
+    String state = authorization.getAttribute(OAuth2ParameterNames.STATE);
+    if (state != null) {
+      tokenValues.add(state);
+    }
+    for (Class<? extends OAuth2Token> tokenClass : TOKEN_CLASSES) {
+      OAuth2Authorization.Token<? extends OAuth2Token> token = authorization.getToken(tokenClass);
+      if (token != null) {
+        tokenValues.add(token.getToken().getTokenValue());
+      }
+    }
+    return tokenValues;
+  }
+
+  private static boolean hasToken(OAuth2Authorization authorization, String token,
+      OAuth2TokenType tokenType) {
+    if (tokenType == null) {
+      return true; // the index only holds values of this authorization
+    }
+    String type = tokenType.getValue();
+    if (OAuth2ParameterNames.STATE.equals(type)) {
+      return token.equals(authorization.getAttribute(OAuth2ParameterNames.STATE));
+    } else if (OAuth2ParameterNames.CODE.equals(type)) {
+      return matchesToken(authorization.getToken(OAuth2AuthorizationCode.class), token);
+    } else if (OAuth2ParameterNames.ACCESS_TOKEN.equals(type)) {
+      return matchesToken(authorization.getToken(OAuth2AccessToken.class), token);
+    } else if (OAuth2ParameterNames.REFRESH_TOKEN.equals(type)) {
+      return matchesToken(authorization.getToken(OAuth2RefreshToken.class), token);
+    } else if (OidcParameterNames.ID_TOKEN.equals(type)) {
+      return matchesToken(authorization.getToken(OidcIdToken.class), token);
+    } else if (OAuth2ParameterNames.USER_CODE.equals(type)) {
+      return matchesToken(authorization.getToken(OAuth2UserCode.class), token);
+    } else if (OAuth2ParameterNames.DEVICE_CODE.equals(type)) {
+      return matchesToken(authorization.getToken(OAuth2DeviceCode.class), token);
+    }
+    return false;
+  }
+
+  private static boolean matchesToken(OAuth2Authorization.Token<?> authorizationToken,
+      String token) {
+    return authorizationToken != null
+        && authorizationToken.getToken().getTokenValue().equals(token);
+  }
+
+  private record HotAuthorization(OAuth2Authorization authorization) {
+  }
+
+  /**
+   * Expires an in-memory authorization together with the longest-lived artifact it carries.
+   */
+  private static final class HotAuthorizationExpiry implements Expiry<String, HotAuthorization> {
+    private final Duration defaultTimeToLive;
+
+    private HotAuthorizationExpiry(Duration defaultTimeToLive) {
+      this.defaultTimeToLive = defaultTimeToLive;
+    }
+
+    @Override
+    public long expireAfterCreate(String id, HotAuthorization hotAuthorization,
+        long currentTime) {
+      return timeToLive(hotAuthorization).toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(String id, HotAuthorization hotAuthorization, long currentTime,
+        long currentDuration) {
+      return timeToLive(hotAuthorization).toNanos();
+    }
+
+    @Override
+    public long expireAfterRead(String id, HotAuthorization hotAuthorization, long currentTime,
+        long currentDuration) {
+      return currentDuration;
+    }
+
+    private Duration timeToLive(HotAuthorization hotAuthorization) {
+      Instant expiresAt = null;
+      for (Class<? extends OAuth2Token> tokenClass : TOKEN_CLASSES) {
+        OAuth2Authorization.Token<? extends OAuth2Token> token =
+            hotAuthorization.authorization().getToken(tokenClass);
+        Instant tokenExpiresAt = token != null ? token.getToken().getExpiresAt() : null;
+        if (tokenExpiresAt != null && (expiresAt == null || tokenExpiresAt.isAfter(expiresAt))) {
+          expiresAt = tokenExpiresAt;
+        }
+      }
+      if (expiresAt == null) {
+        return this.defaultTimeToLive;
+      }
+      Duration remaining = Duration.between(Instant.now(), expiresAt);
+      return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package com.scaler.auth_server.throttle;
+
+import java.time.Duration;
+import org.springframework.util.Assert;
+
+/**
+ * Shape of a token bucket: it holds at most {@code capacity} tokens and regains one every
+ * {@code refillPeriod}.
+ */
+public record BucketLimit(int capacity, Duration refillPeriod) {
+
+  public BucketLimit {
+    Assert.isTrue(capacity > 0, "capacity must be positive");
+    Assert.isTrue(refillPeriod != null && refillPeriod.toMillis() > 0,
+        "refillPeriod must be at least 1ms");
+  }
+
+  /**
+   * Time an empty bucket takes to fill up; an idle bucket older than that equals a new one.
+   */
+  public Duration fullRefillTime() {
+    return this.refillPeriod.multipliedBy(this.capacity);
+  }
+}
@@ -0,0 +1,41 @@
+package com.scaler.auth_server.throttle;
+
+import java.time.Duration;
+import java.util.Optional;
+import org.springframework.util.Assert;
+import com.scaler.auth_server.repositories.LoginThrottleBucketRepository;
+
+/**
+ * Buckets in the {@code login_throttle_bucket} table, so every node draws from the same buckets
+ * and a limit holds however requests are balanced. Each attempt is one upsert round trip; node
+ * clocks are assumed to be synchronized.
+ */
+public class DatabaseTokenBucketStore implements TokenBucketStore {
+  private final LoginThrottleBucketRepository loginThrottleBucketRepository;
+
+  public DatabaseTokenBucketStore(LoginThrottleBucketRepository loginThrottleBucketRepository) {
+    Assert.notNull(loginThrottleBucketRepository,
+        "loginThrottleBucketRepository cannot be null");
+    this.loginThrottleBucketRepository = loginThrottleBucketRepository;
+  }
+
+  @Override
+  public Duration tryConsume(String key, BucketLimit limit) {
+    long now = System.currentTimeMillis();
+    Optional<Double> tokensLeft = this.loginThrottleBucketRepository.tryConsume(key,
+        limit.capacity(), limit.refillPeriod().toMillis(), now,
+        now + limit.fullRefillTime().toMillis());
+    // The statement does not report how far the bucket is from a token; one period is the most
+    return tokensLeft.isPresent() ? Duration.ZERO : limit.refillPeriod();
+  }
+
+  @Override
+  public void refund(String key, BucketLimit limit) {
+    this.loginThrottleBucketRepository.refund(key, limit.capacity());
+  }
+
+  @Override
+  public void evictExpired() {
+    this.loginThrottleBucketRepository.deleteExpired(System.currentTimeMillis());
+  }
+}
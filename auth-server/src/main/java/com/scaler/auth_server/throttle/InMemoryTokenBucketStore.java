@@ -0,0 +1,138 @@
+package com.scaler.auth_server.throttle;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Buckets held in this node's memory. The map is a size-bounded Caffeine cache (striped, with
+ * lock-free reads), and a bucket expires once it has been idle long enough to be full again, so
+ * evicting it loses nothing. Each bucket is a single {@link AtomicLong} updated by CAS, so
+ * concurrent attempts on one key never block each other.
+ */
+public class InMemoryTokenBucketStore implements TokenBucketStore {
+  private final long origin = System.nanoTime();
+  private final Cache<String, TokenBucket> buckets;
+
+  public InMemoryTokenBucketStore(long maximumSize) {
+    this.buckets = Caffeine.newBuilder().maximumSize(maximumSize)
+        .expireAfter(new IdleUntilFull()).recordStats().build();
+  }
+
+  public Cache<String, TokenBucket> getBuckets() {
+    return this.buckets;
+  }
+
+  @Override
+  public Duration tryConsume(String key, BucketLimit limit) {
+    long now = now();
+    long waitMillis =
+        this.buckets.get(key, bucketKey -> new TokenBucket(limit, now)).tryConsume(now);
+    return Duration.ofMillis(waitMillis);
+  }
+
+  @Override
+  public void refund(String key, BucketLimit limit) {
+    TokenBucket bucket = this.buckets.getIfPresent(key);
+    if (bucket != null) {
+      bucket.refund();
+    }
+  }
+
+  @Override
+  public void evictExpired() {
+    this.buckets.cleanUp();
+  }
+
+  private long now() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.origin);
+  }
+
+  /**
+   * Token count and refill time packed into one long: the time of the last refill in
+   * milliseconds since the store started in the upper 40 bits (about 34 years), thousandths of a
+   * token in the lower 24 bits (up to 16777 tokens).
+   */
+  public static final class TokenBucket {
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long ONE_TOKEN = 1000;
+
+    private final BucketLimit limit;
+    private final long capacity;
+    private final long refillMillis;
+    private final AtomicLong state;
+
+    TokenBucket(BucketLimit limit, long now) {
+      this.limit = limit;
+      this.capacity = limit.capacity() * ONE_TOKEN;
+      this.refillMillis = limit.refillPeriod().toMillis();
+      if (this.capacity > TOKEN_MASK) {
+        throw new IllegalArgumentException("capacity cannot exceed " + TOKEN_MASK / ONE_TOKEN);
+      }
+      this.state = new AtomicLong(pack(now, this.capacity));
+    }
+
+    /**
+     * Takes a token and returns 0, or returns the milliseconds until one is available.
+     */
+    long tryConsume(long now) {
+      while (true) {
+        long current = this.state.get();
+        long refilledAt = current >>> TOKEN_BITS;
+        long tokens = current & TOKEN_MASK;
+        // Credit whole thousandths only and advance the refill time by what they are worth, so
+        // the remainder carries over to the next call
+        long gained = Math.max(0, now - refilledAt) * ONE_TOKEN / this.refillMillis;
+        tokens += gained;
+        if (tokens >= this.capacity) {
+          tokens = this.capacity;
+          refilledAt = now;
+        } else {
+          refilledAt += gained * this.refillMillis / ONE_TOKEN;
+        }
+        if (tokens < ONE_TOKEN) {
+          return Math.max(1, ((ONE_TOKEN - tokens) * this.refillMillis + ONE_TOKEN - 1) / ONE_TOKEN
+              - (now - refilledAt));
+        }
+        if (this.state.compareAndSet(current, pack(refilledAt, tokens - ONE_TOKEN))) {
+          return 0;
+        }
+      }
+    }
+
+    void refund() {
+      this.state.getAndUpdate(current -> {
+        long tokens = Math.min(this.capacity, (current & TOKEN_MASK) + ONE_TOKEN);
+        return current & ~TOKEN_MASK | tokens;
+      });
+    }
+
+    private static long pack(long refilledAt, long tokens) {
+      return refilledAt << TOKEN_BITS | tokens;
+    }
+  }
+
+  private static final class IdleUntilFull implements Expiry<String, TokenBucket> {
+
+    @Override
+    public long expireAfterCreate(String key, TokenBucket bucket, long currentTime) {
+      return bucket.limit.fullRefillTime().toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, TokenBucket bucket, long currentTime,
+        long currentDuration) {
+      return bucket.limit.fullRefillTime().toNanos();
+    }
+
+    @Override
+    public long expireAfterRead(String key, TokenBucket bucket, long currentTime,
+        long currentDuration) {
+      return bucket.limit.fullRefillTime().toNanos();
+    }
+  }
+}
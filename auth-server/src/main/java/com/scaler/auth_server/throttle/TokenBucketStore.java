@@ -0,0 +1,29 @@
+package com.scaler.auth_server.throttle;
+
+import java.time.Duration;
+
+/**
+ * Token buckets keyed by an arbitrary string. A bucket that does not exist yet is full.
+ */
+public interface TokenBucketStore {
+
+  /**
+   * Takes one token from the bucket of the key.
+   *
+   * @return {@link Duration#ZERO} when a token was taken, otherwise how long until one is
+   *         available
+   */
+  Duration tryConsume(String key, BucketLimit limit);
+
+  /**
+   * Puts back one token taken by {@link #tryConsume}, up to the capacity.
+   */
+  void refund(String key, BucketLimit limit);
+
+  /**
+   * Drops buckets that have been idle long enough to be full again.
+   */
+  default void evictExpired() {
+  }
+
+}
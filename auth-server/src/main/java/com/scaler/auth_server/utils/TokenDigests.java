@@ -0,0 +1,34 @@
+package com.scaler.auth_server.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Utility class for deriving fixed-length digests of token values, so tokens of up to 4000
+ * characters can be looked up through a compact, indexable key.
+ */
+public final class TokenDigests {
+
+  private static final HexFormat HEX = HexFormat.of();
+
+  private TokenDigests() {
+    // Utility class - prevent instantiation
+  }
+
+  /**
+   * Computes the SHA-256 digest of a token value.
+   * 
+   * @param token the token value
+   * @return the lower-case hex encoded digest (64 characters)
+   */
+  public static String sha256Hex(String token) {
+    try {
+      MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+      return HEX.formatHex(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
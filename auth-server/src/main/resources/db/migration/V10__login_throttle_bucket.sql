@@ -0,0 +1,12 @@
+-- Login throttle token buckets shared by all nodes (auth-server.login-throttle.store=database).
+-- Rows are refilled and drained by a single upsert; idle rows are full again after expires_at
+-- and are deleted by the periodic cleanup.
+
+create table login_throttle_bucket (
+    bucket_key  varchar(320) primary key,
+    tokens      double precision not null,
+    refilled_at bigint           not null,
+    expires_at  bigint           not null
+);
+
+create index idx_login_throttle_bucket_expires_at on login_throttle_bucket (expires_at);
@@ -0,0 +1,4 @@
+-- Stamp invalidations with the database clock instead of the writing node's, so the settle
+-- window every poller applies is measured against one clock regardless of JVM clock skew.
+
+alter table cache_invalidation alter column created_at set default localtimestamp;
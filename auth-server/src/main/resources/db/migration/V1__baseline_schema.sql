@@ -0,0 +1,71 @@
+-- Baseline of the schema previously generated by Hibernate (ddl-auto: update).
+-- Existing databases are baselined at this version and skip it.
+
+create table if not exists app_user (
+    id         bigint generated by default as identity primary key,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    name       varchar(300),
+    email      varchar(500) not null unique,
+    password   varchar(500) not null
+);
+
+create table if not exists client (
+    id                            varchar(255) primary key,
+    client_id                     varchar(255),
+    client_id_issued_at           timestamp(6) with time zone,
+    client_secret                 varchar(255),
+    client_secret_expires_at      timestamp(6) with time zone,
+    client_name                   varchar(255),
+    client_authentication_methods varchar(1000),
+    authorization_grant_types     varchar(1000),
+    redirect_uris                 varchar(1000),
+    post_logout_redirect_uris     varchar(1000),
+    scopes                        varchar(1000),
+    client_settings               varchar(2000),
+    token_settings                varchar(2000)
+);
+
+create table if not exists authorization_consent (
+    registered_client_id varchar(255) not null,
+    principal_name       varchar(255) not null,
+    authorities          varchar(1000),
+    primary key (registered_client_id, principal_name)
+);
+
+create table if not exists "authorization" (
+    id                            varchar(255) primary key,
+    registered_client_id          varchar(255),
+    principal_name                varchar(255),
+    authorization_grant_type      varchar(255),
+    authorized_scopes             varchar(1000),
+    attributes                    varchar(4000),
+    state                         varchar(500),
+    authorization_code_value      varchar(4000),
+    authorization_code_issued_at  timestamp(6) with time zone,
+    authorization_code_expires_at timestamp(6) with time zone,
+    authorization_code_metadata   varchar(255),
+    access_token_value            varchar(4000),
+    access_token_issued_at        timestamp(6) with time zone,
+    access_token_expires_at       timestamp(6) with time zone,
+    access_token_metadata         varchar(2000),
+    access_token_type             varchar(255),
+    access_token_scopes           varchar(1000),
+    refresh_token_value           varchar(4000),
+    refresh_token_issued_at       timestamp(6) with time zone,
+    refresh_token_expires_at      timestamp(6) with time zone,
+    refresh_token_metadata        varchar(2000),
+    oidc_id_token_value           varchar(4000),
+    oidc_id_token_issued_at       timestamp(6) with time zone,
+    oidc_id_token_expires_at      timestamp(6) with time zone,
+    oidc_id_token_metadata        varchar(2000),
+    oidc_id_token_claims          varchar(2000),
+    user_code_value               varchar(4000),
+    user_code_issued_at           timestamp(6) with time zone,
+    user_code_expires_at          timestamp(6) with time zone,
+    user_code_metadata            varchar(2000),
+    device_code_value             varchar(4000),
+    device_code_issued_at         timestamp(6) with time zone,
+    device_code_expires_at        timestamp(6) with time zone,
+    device_code_metadata          varchar(2000)
+);
@@ -0,0 +1,38 @@
+-- One row per token value held by an authorization, keyed by the hex SHA-256 digest of the
+-- value, so findByToken is a single primary-key probe instead of an OR across seven
+-- unindexed varchar(4000) columns.
+
+create table authorization_token_lookup (
+    token_digest     varchar(64)  primary key,
+    token_type       varchar(32)  not null,
+    authorization_id varchar(255) not null
+);
+
+create index idx_authorization_token_lookup_authorization_id
+    on authorization_token_lookup (authorization_id);
+
+insert into authorization_token_lookup (token_digest, token_type, authorization_id)
+select encode(sha256(convert_to(t.token_value, 'UTF8')), 'hex'), t.token_type, t.authorization_id
+from (
+    select id as authorization_id, 'state' as token_type, state as token_value
+    from "authorization" where state is not null
+    union all
+    select id, 'code', authorization_code_value
+    from "authorization" where authorization_code_value is not null
+    union all
+    select id, 'access_token', access_token_value
+    from "authorization" where access_token_value is not null
+    union all
+    select id, 'refresh_token', refresh_token_value
+    from "authorization" where refresh_token_value is not null
+    union all
+    select id, 'id_token', oidc_id_token_value
+    from "authorization" where oidc_id_token_value is not null
+    union all
+    select id, 'user_code', user_code_value
+    from "authorization" where user_code_value is not null
+    union all
+    select id, 'device_code', device_code_value
+    from "authorization" where device_code_value is not null
+) t
+on conflict (token_digest) do nothing;
@@ -0,0 +1,12 @@
+-- Append-only log of cache invalidations, polled by every node so that in-memory caches
+-- converge across replicas within the poll interval.
+
+create table cache_invalidation (
+    id         bigint generated by default as identity primary key,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    cache_name varchar(100) not null,
+    cache_key  varchar(500) not null
+);
+
+create index idx_cache_invalidation_created_at on cache_invalidation (created_at);
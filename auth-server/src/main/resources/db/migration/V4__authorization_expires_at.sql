@@ -0,0 +1,11 @@
+-- Effective expiry of an authorization: the latest expiry of any token it holds. Null when no
+-- token carries an expiry, in which case the reaper never deletes the row.
+
+alter table "authorization" add column expires_at timestamp(6) with time zone;
+
+update "authorization"
+set expires_at = greatest(authorization_code_expires_at, access_token_expires_at,
+    refresh_token_expires_at, oidc_id_token_expires_at, user_code_expires_at,
+    device_code_expires_at);
+
+create index idx_authorization_expires_at on "authorization" (expires_at, id);
@@ -0,0 +1,12 @@
+-- Signing keys shared by every node. NEXT keys are published for verification before they
+-- become ACTIVE; RETIRED keys stay published until every token they signed has expired.
+
+create table jwk_key (
+    kid          varchar(100)   primary key,
+    algorithm    varchar(20)    not null,
+    jwk          varchar(10000) not null,
+    status       varchar(20)    not null,
+    created_at   timestamp(6) with time zone not null,
+    activated_at timestamp(6) with time zone,
+    retired_at   timestamp(6) with time zone
+);
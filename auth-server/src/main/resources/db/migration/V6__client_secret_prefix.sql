@@ -0,0 +1,6 @@
+-- Client secrets used to be stored as "{bcrypt}" + an already prefixed hash, which the delegating
+-- password encoder can never match. Strip the duplicated prefix.
+
+update client
+set client_secret = substring(client_secret from 9)
+where client_secret like '{bcrypt}{bcrypt}%';
@@ -0,0 +1,3 @@
+-- Client authentication at the token endpoint resolves clients by client_id on every request.
+
+create unique index uk_client_client_id on client (client_id);
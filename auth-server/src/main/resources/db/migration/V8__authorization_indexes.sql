@@ -0,0 +1,9 @@
+-- Secondary access paths of the authorization and consent tables. Token values (up to 4000
+-- characters) are not indexed directly; they are resolved through the SHA-256 digest keys of
+-- authorization_token_lookup (V2). Trailing id columns allow keyset pagination.
+
+create index idx_authorization_principal_name on "authorization" (principal_name, id);
+
+create index idx_authorization_registered_client_id on "authorization" (registered_client_id, id);
+
+create index idx_authorization_consent_principal_name on authorization_consent (principal_name);
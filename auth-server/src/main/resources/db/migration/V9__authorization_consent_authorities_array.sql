@@ -0,0 +1,4 @@
+-- Consent authorities were a comma-delimited string split on every read; store them as an array.
+
+alter table authorization_consent
+    alter column authorities type varchar(255)[] using string_to_array(authorities, ',');
@@ -0,0 +1,60 @@
+package com.scaler.auth_server.controllers;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Checks that only the client itself can list or revoke the authorizations issued to it. The
+ * client does not exist, so a request that gets past authorization ends in 404.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:client-authorizations-${random.uuid};DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa", "spring.datasource.password=",
+    "spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=update"})
+@AutoConfigureMockMvc
+class ClientAuthorizationsAccessTests {
+
+  private static final String CLIENT_ID = "client-" + UUID.randomUUID();
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Test
+  void userTokenIsForbidden() throws Exception {
+    mockMvc.perform(get("/clients/{clientId}/authorizations", CLIENT_ID)
+        .with(jwt().jwt(jwt -> jwt.subject("jane.doe@example.com"))))
+        .andExpect(status().isForbidden());
+    mockMvc.perform(delete("/clients/{clientId}/authorizations", CLIENT_ID)
+        .with(jwt().jwt(jwt -> jwt.subject("jane.doe@example.com"))))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void userTokenIssuedThroughTheClientIsForbidden() throws Exception {
+    mockMvc.perform(delete("/clients/{clientId}/authorizations", CLIENT_ID)
+        .with(jwt().jwt(jwt -> jwt.subject("jane.doe@example.com").claim("client_id", CLIENT_ID))))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void tokenOfAnotherClientIsForbidden() throws Exception {
+    mockMvc.perform(delete("/clients/{clientId}/authorizations", CLIENT_ID)
+        .with(jwt().jwt(jwt -> jwt.subject("other-client").claim("client_id", "other-client"))))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void clientCredentialsTokenOfTheClientIsAllowed() throws Exception {
+    mockMvc.perform(get("/clients/{clientId}/authorizations", CLIENT_ID)
+        .with(jwt().jwt(jwt -> jwt.subject(CLIENT_ID).claim("client_id", CLIENT_ID))))
+        .andExpect(status().isNotFound());
+  }
+}
@@ -0,0 +1,39 @@
+package com.scaler.auth_server.controllers;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Checks that only the user's own login token, not one a client obtained for them, can revoke all
+ * of the user's authorizations.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:user-authorizations-${random.uuid};DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa", "spring.datasource.password=",
+    "spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=update"})
+@AutoConfigureMockMvc
+class UserAuthorizationsAccessTests {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Test
+  void tokenIssuedToAClientIsForbidden() throws Exception {
+    mockMvc.perform(delete("/api/users/me/authorizations")
+        .with(jwt().jwt(jwt -> jwt.subject("jane.doe@example.com").claim("client_id", "app"))))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void loginTokenIsAllowed() throws Exception {
+    mockMvc.perform(delete("/api/users/me/authorizations")
+        .with(jwt().jwt(jwt -> jwt.subject("jane.doe@example.com").claim("userId", 1))))
+        .andExpect(status().isOk());
+  }
+}
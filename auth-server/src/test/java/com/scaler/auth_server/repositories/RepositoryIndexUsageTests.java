@@ -0,0 +1,192 @@
+package com.scaler.auth_server.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+/**
+ * Runs every repository query against the Flyway schema on PostgreSQL, captures the SQL Hibernate
+ * generates and checks with {@code EXPLAIN} that each statement can be answered through an index.
+ * Sequential scans are disabled while explaining, so a plan only contains one when no index
+ * applies, regardless of table statistics. Queries that read whole tables by design (the hash
+ * parameter report and the signing key set) are not covered.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+    + "com.scaler.auth_server.repositories.RepositoryIndexUsageTests$CapturingStatementInspector")
+class RepositoryIndexUsageTests {
+
+  @Container
+  @ServiceConnection
+  static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:17-alpine");
+
+  @Autowired
+  private AuthorizationRepository authorizationRepository;
+  @Autowired
+  private AuthorizationTokenLookupRepository authorizationTokenLookupRepository;
+  @Autowired
+  private AuthorizationConsentRepository authorizationConsentRepository;
+  @Autowired
+  private ClientRepository clientRepository;
+  @Autowired
+  private AppUserRepository appUserRepository;
+  @Autowired
+  private CacheInvalidationRepository cacheInvalidationRepository;
+  @Autowired
+  private LoginThrottleBucketRepository loginThrottleBucketRepository;
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void authorizationQueriesUseIndexes() {
+    Instant now = Instant.now();
+    assertIndexed(() -> authorizationRepository.findById("id"));
+    assertIndexed(() -> authorizationRepository.findByTokenDigest("digest"));
+    assertIndexed(() -> authorizationRepository.findByTokenDigestAndTokenType("digest", "type"));
+    assertIndexed(() -> authorizationRepository.findExpired(now, Instant.EPOCH, "", Limit.of(10)));
+    assertIndexed(() -> authorizationRepository.deleteExpiredByIdIn(List.of("id"), now));
+    assertIndexed(() -> authorizationRepository.findByPrincipalName("principal", "",
+        Limit.of(10)));
+    assertIndexed(() -> authorizationRepository.findByRegisteredClientId("client", "",
+        Limit.of(10)));
+    assertIndexed(() -> authorizationRepository.findIdsByPrincipalName("principal", "",
+        Limit.of(10)));
+    assertIndexed(() -> authorizationRepository.findIdsByRegisteredClientId("client", "",
+        Limit.of(10)));
+    assertIndexed(() -> authorizationRepository.deleteByIdIn(List.of("id")));
+  }
+
+  @Test
+  void authorizationTokenLookupQueriesUseIndexes() {
+    assertIndexed(() -> authorizationTokenLookupRepository.deleteByAuthorizationId("id"));
+    assertIndexed(
+        () -> authorizationTokenLookupRepository.deleteByAuthorizationIdIn(List.of("id")));
+    assertIndexed(
+        () -> authorizationTokenLookupRepository.deleteOrphansByAuthorizationIdIn(List.of("id")));
+  }
+
+  @Test
+  void authorizationConsentQueriesUseIndexes() {
+    assertIndexed(() -> authorizationConsentRepository
+        .findByRegisteredClientIdAndPrincipalName("client", "principal"));
+    assertIndexed(() -> authorizationConsentRepository
+        .deleteByRegisteredClientIdAndPrincipalName("client", "principal"));
+  }
+
+  @Test
+  void clientQueriesUseIndexes() {
+    assertIndexed(() -> clientRepository.findById("id"));
+    assertIndexed(() -> clientRepository.findByClientId("client"));
+  }
+
+  @Test
+  void appUserQueriesUseIndexes() {
+    assertIndexed(() -> appUserRepository.findByEmail("jane.doe@example.com"));
+    assertIndexed(() -> appUserRepository.existsByEmail("jane.doe@example.com"));
+  }
+
+  @Test
+  void cacheInvalidationQueriesUseIndexes() {
+    assertIndexed(() -> cacheInvalidationRepository.findByIdGreaterThanOrderByIdAsc(0L,
+        Limit.of(10)));
+    assertIndexed(() -> cacheInvalidationRepository.findMaxId());
+    assertIndexed(() -> cacheInvalidationRepository.deleteCreatedBefore(LocalDateTime.now()));
+  }
+
+  @Test
+  void loginThrottleQueriesUseIndexes() {
+    assertIndexed(() -> loginThrottleBucketRepository.tryConsume("account:jane.doe@example.com",
+        10, 30000, 0L, 300000L));
+    assertIndexed(() -> loginThrottleBucketRepository.refund("account:jane.doe@example.com", 10));
+    assertIndexed(() -> loginThrottleBucketRepository.deleteExpired(0L));
+  }
+
+  private void assertIndexed(Runnable query) {
+    List<String> statements = CapturingStatementInspector.capture(() -> transactionTemplate
+        .executeWithoutResult(status -> {
+          query.run();
+          status.setRollbackOnly();
+        }));
+    assertThat(statements).isNotEmpty();
+    for (String sql : statements) {
+      assertThat(String.join("\n", explain(sql))).as(sql).doesNotContain("Seq Scan");
+    }
+  }
+
+  private List<String> explain(String sql) {
+    return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("set enable_seqscan = off");
+        List<String> plan = new ArrayList<>();
+        try (ResultSet resultSet =
+            statement.executeQuery("explain (generic_plan) " + toNumberedParameters(sql))) {
+          while (resultSet.next()) {
+            plan.add(resultSet.getString(1));
+          }
+        } finally {
+          statement.execute("reset enable_seqscan");
+        }
+        return plan;
+      }
+    });
+  }
+
+  private static String toNumberedParameters(String sql) {
+    StringBuilder numbered = new StringBuilder(sql.length());
+    int parameter = 0;
+    for (char c : sql.toCharArray()) {
+      if (c == '?') {
+        numbered.append('$').append(++parameter);
+      } else {
+        numbered.append(c);
+      }
+    }
+    return numbered.toString();
+  }
+
+  /**
+   * Records the SQL Hibernate prepares on the current thread, ignoring statements of scheduled
+   * background work.
+   */
+  public static class CapturingStatementInspector implements StatementInspector {
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    static List<String> capture(Runnable work) {
+      List<String> statements = new ArrayList<>();
+      STATEMENTS.set(statements);
+      try {
+        work.run();
+      } finally {
+        STATEMENTS.remove();
+      }
+      return statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+      List<String> statements = STATEMENTS.get();
+      if (statements != null) {
+        statements.add(sql);
+      }
+      return sql;
+    }
+  }
+}
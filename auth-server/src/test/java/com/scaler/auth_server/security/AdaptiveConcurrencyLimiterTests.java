@@ -0,0 +1,169 @@
+package com.scaler.auth_server.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import com.scaler.auth_server.config.ConcurrencyLimitProperties;
+
+/**
+ * Feeds the limiter synthetic latencies, moving its clock by hand so each simulated sample window
+ * ends exactly once.
+ */
+class AdaptiveConcurrencyLimiterTests {
+  private static final Duration WINDOW = Duration.ofMillis(100);
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  void limitGrowsWhileLatencyStaysWithinTolerance() {
+    AdaptiveConcurrencyLimiter limiter = newLimiter(20, 4, 200);
+
+    int previous = limiter.getLimit();
+    for (int i = 0; i < 10; i++) {
+      window(limiter, Integer.MAX_VALUE, FAST);
+      assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(previous);
+      previous = limiter.getLimit();
+    }
+    assertThat(previous).isGreaterThan(20);
+
+    window(limiter, Integer.MAX_VALUE, FAST * 14 / 10);
+    assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(previous);
+  }
+
+  @Test
+  void limitShrinksWhenLatencyRisesBeyondTolerance() {
+    AdaptiveConcurrencyLimiter limiter = newLimiter(20, 4, 200);
+    for (int i = 0; i < 20; i++) {
+      window(limiter, Integer.MAX_VALUE, FAST);
+    }
+    int before = limiter.getLimit();
+
+    int previous = before;
+    for (int i = 0; i < 5; i++) {
+      window(limiter, Integer.MAX_VALUE, SLOW);
+      assertThat(limiter.getLimit()).isLessThan(previous);
+      previous = limiter.getLimit();
+    }
+    assertThat(previous).isLessThan(before);
+  }
+
+  @Test
+  void unsampledReleasesDoNotHideRisingLatency() {
+    AdaptiveConcurrencyLimiter limiter = newLimiter(20, 4, 200);
+    for (int i = 0; i < 20; i++) {
+      window(limiter, Integer.MAX_VALUE, FAST);
+    }
+    int before = limiter.getLimit();
+
+    for (int i = 0; i < 5; i++) {
+      int held = 0;
+      while (limiter.tryAcquire()) {
+        held++;
+      }
+      // Half of the requests are turned away at once, the other half are slow
+      for (int released = 0; released < held / 2; released++) {
+        limiter.releaseUnsampled();
+      }
+      for (int released = held / 2; released < held - 1; released++) {
+        limiter.release(SLOW, false);
+      }
+      this.clock.addAndGet(WINDOW.toNanos());
+      limiter.release(SLOW, false);
+    }
+
+    assertThat(limiter.getLimit()).isLessThan(before);
+    assertThat(limiter.getInFlight()).isZero();
+  }
+
+  @Test
+  void limitStopsAtTheCeiling() {
+    AdaptiveConcurrencyLimiter limiter = newLimiter(20, 4, 25);
+
+    for (int i = 0; i < 100; i++) {
+      window(limiter, Integer.MAX_VALUE, FAST);
+    }
+
+    assertThat(limiter.getLimit()).isEqualTo(25);
+  }
+
+  @Test
+  void overloadBacksOffDownToTheFloor() {
+    AdaptiveConcurrencyLimiter limiter = newLimiter(20, 4, 200);
+
+    overloadedWindow(limiter);
+    assertThat(limiter.getLimit()).isEqualTo(18);
+
+    for (int i = 0; i < 50; i++) {
+      overloadedWindow(limiter);
+    }
+    assertThat(limiter.getLimit()).isEqualTo(4);
+  }
+
+  @Test
+  void underusedWindowsLeaveTheLimitAlone() {
+    AdaptiveConcurrencyLimiter limiter = newLimiter(20, 4, 200);
+
+    for (int i = 0; i < 20; i++) {
+      window(limiter, 5, FAST);
+    }
+    for (int i = 0; i < 5; i++) {
+      window(limiter, 5, SLOW);
+    }
+
+    assertThat(limiter.getLimit()).isEqualTo(20);
+  }
+
+  @Test
+  void requestsBeyondTheLimitAreRefused() {
+    AdaptiveConcurrencyLimiter limiter = newLimiter(4, 4, 200);
+
+    for (int i = 0; i < 4; i++) {
+      assertThat(limiter.tryAcquire()).isTrue();
+    }
+    assertThat(limiter.tryAcquire()).isFalse();
+    assertThat(limiter.getInFlight()).isEqualTo(4);
+
+    limiter.release(FAST, false);
+    assertThat(limiter.tryAcquire()).isTrue();
+  }
+
+  private AdaptiveConcurrencyLimiter newLimiter(int initialLimit, int minLimit, int maxLimit) {
+    ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties(true, initialLimit,
+        minLimit, maxLimit, WINDOW, 1.5, 0.2, 0.9, Duration.ofSeconds(1));
+    return new AdaptiveConcurrencyLimiter(properties, this.clock::get);
+  }
+
+  /**
+   * Runs rounds of up to {@code concurrency} simultaneous requests until the window has enough
+   * samples, and ends the window just before the last release.
+   */
+  private void window(AdaptiveConcurrencyLimiter limiter, int concurrency, long rttNanos) {
+    int samples = 0;
+    while (true) {
+      int held = 0;
+      while (held < concurrency && limiter.tryAcquire()) {
+        held++;
+      }
+      samples += held;
+      for (int i = 1; i < held; i++) {
+        limiter.release(rttNanos, false);
+      }
+      if (samples >= 10) {
+        this.clock.addAndGet(WINDOW.toNanos());
+        limiter.release(rttNanos, false);
+        return;
+      }
+      limiter.release(rttNanos, false);
+    }
+  }
+
+  private void overloadedWindow(AdaptiveConcurrencyLimiter limiter) {
+    assertThat(limiter.tryAcquire()).isTrue();
+    this.clock.addAndGet(WINDOW.toNanos());
+    limiter.release(FAST, true);
+  }
+}
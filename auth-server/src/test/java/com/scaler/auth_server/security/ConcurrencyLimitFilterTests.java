@@ -0,0 +1,107 @@
+package com.scaler.auth_server.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import com.scaler.auth_server.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the filter against mock requests; a request is held in flight by issuing the next one from
+ * inside its filter chain.
+ */
+class ConcurrencyLimitFilterTests {
+  private static final RequestMatcher TOKEN_ENDPOINT =
+      request -> "/oauth2/token".equals(request.getRequestURI());
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void requestBeyondTheLimitIsRejectedWithRetryAfter() throws Exception {
+    ConcurrencyLimitFilter filter = newFilter(1, Duration.ofMillis(100), Duration.ofSeconds(2));
+    MockHttpServletResponse rejected = new MockHttpServletResponse();
+    MockFilterChain rejectedChain = new MockFilterChain();
+    MockHttpServletResponse held = new MockHttpServletResponse();
+
+    filter.doFilter(tokenRequest(), held,
+        (request, response) -> filter.doFilter(tokenRequest(), rejected, rejectedChain));
+
+    assertThat(held.getStatus()).isEqualTo(HttpStatus.OK.value());
+    assertThat(rejected.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+    assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+    assertThat(rejected.getContentAsString()).contains("server is busy, retry later");
+    assertThat(rejectedChain.getRequest()).isNull();
+    assertThat(this.meterRegistry.get("auth.concurrency.rejected").tag("endpoint", "token")
+        .counter().count()).isEqualTo(1);
+
+    // The permit was given back once the held request completed
+    MockHttpServletResponse next = new MockHttpServletResponse();
+    MockFilterChain nextChain = new MockFilterChain();
+    filter.doFilter(tokenRequest(), next, nextChain);
+    assertThat(next.getStatus()).isEqualTo(HttpStatus.OK.value());
+    assertThat(nextChain.getRequest()).isNotNull();
+  }
+
+  @Test
+  void unmatchedRequestsAreNotLimited() throws Exception {
+    ConcurrencyLimitFilter filter = newFilter(1, Duration.ofMillis(100), Duration.ofSeconds(1));
+    MockHttpServletRequest other = new MockHttpServletRequest("GET", "/.well-known/jwks.json");
+    MockHttpServletResponse otherResponse = new MockHttpServletResponse();
+    MockFilterChain otherChain = new MockFilterChain();
+
+    filter.doFilter(tokenRequest(), new MockHttpServletResponse(),
+        (request, response) -> filter.doFilter(other, otherResponse, otherChain));
+
+    assertThat(otherResponse.getStatus()).isEqualTo(HttpStatus.OK.value());
+    assertThat(otherChain.getRequest()).isNotNull();
+  }
+
+  @Test
+  void tooManyRequestsFromTheEndpointGivesThePermitBack() throws Exception {
+    ConcurrencyLimitFilter filter = newFilter(1, Duration.ofMillis(100), Duration.ofSeconds(1));
+
+    for (int i = 0; i < 3; i++) {
+      MockHttpServletResponse throttled = new MockHttpServletResponse();
+      filter.doFilter(tokenRequest(), throttled, (request, response) ->
+          ((MockHttpServletResponse) response).setStatus(HttpStatus.TOO_MANY_REQUESTS.value()));
+      assertThat(throttled.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    assertThat(this.meterRegistry.get("auth.concurrency.in.flight").tag("endpoint", "token")
+        .gauge().value()).isZero();
+    assertThat(this.meterRegistry.get("auth.concurrency.rejected").tag("endpoint", "token")
+        .counter().count()).isZero();
+  }
+
+  @Test
+  void serviceUnavailableFromTheEndpointBacksOff() throws Exception {
+    ConcurrencyLimitFilter filter = newFilter(20, Duration.ofNanos(1), Duration.ofSeconds(1));
+
+    filter.doFilter(tokenRequest(), new MockHttpServletResponse(), (request, response) ->
+        ((MockHttpServletResponse) response).setStatus(HttpStatus.SERVICE_UNAVAILABLE.value()));
+
+    assertThat(this.meterRegistry.get("auth.concurrency.limit").tag("endpoint", "token").gauge()
+        .value()).isEqualTo(18);
+  }
+
+  private ConcurrencyLimitFilter newFilter(int limit, Duration sampleWindow,
+      Duration retryAfter) {
+    int minLimit = Math.min(limit, 4);
+    ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties(true, limit, minLimit,
+        limit, sampleWindow, 1.5, 0.2, 0.9, retryAfter);
+    return new ConcurrencyLimitFilter(Map.of("token", TOKEN_ENDPOINT), properties,
+        this.meterRegistry);
+  }
+
+  private static MockHttpServletRequest tokenRequest() {
+    return new MockHttpServletRequest("POST", "/oauth2/token");
+  }
+}
@@ -0,0 +1,150 @@
+package com.scaler.auth_server.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Drives the write-behind queue against a mocked durable store, holding the first batch open to
+ * let later writes queue up behind it.
+ */
+class AuthorizationWriteBehindQueueTests {
+
+  private static final RegisteredClient CLIENT = RegisteredClient.withId("client")
+      .clientId("client").clientSecret("{noop}secret")
+      .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS).build();
+
+  private final JpaOAuth2AuthorizationService durableAuthorizationService =
+      mock(JpaOAuth2AuthorizationService.class);
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void writesAreCoalescedAndReadableUntilTheyCommit() throws InterruptedException {
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<List<String>> batches = new CopyOnWriteArrayList<>();
+    doAnswer(invocation -> {
+      Collection<OAuth2Authorization> saved = invocation.getArgument(0);
+      List<String> batch = new ArrayList<>();
+      saved.forEach(authorization -> batch.add(accessToken(authorization)));
+      batches.add(batch);
+      writing.countDown();
+      release.await();
+      return null;
+    }).when(this.durableAuthorizationService).writeAll(any(), any());
+    AuthorizationWriteBehindQueue queue = newQueue();
+
+    queue.save(authorization("a", "a1"));
+    assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+    queue.save(authorization("b", "b1"));
+    queue.save(authorization("a", "a2"));
+    queue.save(authorization("a", "a3"));
+
+    assertThat(accessToken(queue.findById("a").authorization())).isEqualTo("a3");
+    assertThat(queue.findByToken("a3").authorization().getId()).isEqualTo("a");
+    assertThat(queue.findByToken("a2")).isNull();
+    assertThat(queue.findByToken("b1").authorization().getId()).isEqualTo("b");
+
+    release.countDown();
+    queue.close();
+
+    assertThat(batches).containsExactly(List.of("a1"), List.of("b1", "a3"));
+    assertThat(queue.findById("a")).isNull();
+    assertThat(queue.findById("b")).isNull();
+    assertThat(queue.findByToken("a3")).isNull();
+  }
+
+  @Test
+  void failedWritesAreRetriedInsteadOfDropped() throws InterruptedException {
+    doThrow(new DataAccessResourceFailureException("database unavailable")).doNothing()
+        .when(this.durableAuthorizationService).writeAll(any(), any());
+    doThrow(new DataAccessResourceFailureException("database unavailable"))
+        .when(this.durableAuthorizationService).save(any());
+    AuthorizationWriteBehindQueue queue = newQueue();
+
+    queue.save(authorization("a", "a1"));
+    queue.close();
+
+    verify(this.durableAuthorizationService, times(2)).writeAll(any(), any());
+    assertThat(queue.findById("a")).isNull();
+  }
+
+  @Test
+  void writeRejectedByTheDatabaseIsDroppedAfterBoundedAttempts() throws InterruptedException {
+    doAnswer(invocation -> {
+      Collection<OAuth2Authorization> saved = invocation.getArgument(0);
+      if (saved.stream().anyMatch(authorization -> authorization.getId().equals("poison"))) {
+        throw new DataIntegrityViolationException("value too long");
+      }
+      return null;
+    }).when(this.durableAuthorizationService).writeAll(any(), any());
+    doThrow(new DataIntegrityViolationException("value too long"))
+        .when(this.durableAuthorizationService)
+        .save(argThat(authorization -> authorization.getId().equals("poison")));
+    AuthorizationWriteBehindQueue queue = newQueue();
+
+    queue.save(authorization("poison", "p1"));
+    queue.save(authorization("a", "a1"));
+    queue.close();
+
+    verify(this.durableAuthorizationService, times(5))
+        .save(argThat(authorization -> authorization.getId().equals("poison")));
+    assertThat(queue.findById("poison")).isNull();
+    assertThat(queue.findByToken("p1")).isNull();
+    assertThat(queue.findById("a")).isNull();
+    assertThat(this.meterRegistry.get("auth.authorization.write.dropped").counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void writerSurvivesAnError() throws InterruptedException {
+    doThrow(new OutOfMemoryError("simulated")).doNothing().when(this.durableAuthorizationService)
+        .writeAll(any(), any());
+    AuthorizationWriteBehindQueue queue = newQueue();
+
+    queue.save(authorization("a", "a1"));
+    queue.close();
+
+    verify(this.durableAuthorizationService, times(2)).writeAll(any(), any());
+    assertThat(queue.findById("a")).isNull();
+  }
+
+  private AuthorizationWriteBehindQueue newQueue() {
+    return new AuthorizationWriteBehindQueue(this.durableAuthorizationService, 10, 100,
+        this.meterRegistry);
+  }
+
+  private static OAuth2Authorization authorization(String id, String accessToken) {
+    Instant issuedAt = Instant.now();
+    return OAuth2Authorization.withRegisteredClient(CLIENT).id(id).principalName("client")
+        .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+        .accessToken(new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, accessToken,
+            issuedAt, issuedAt.plusSeconds(300)))
+        .build();
+  }
+
+  private static String accessToken(OAuth2Authorization authorization) {
+    return authorization.getAccessToken().getToken().getTokenValue();
+  }
+}
@@ -0,0 +1,89 @@
+package com.scaler.auth_server.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.scaler.auth_server.config.ClientRegistrationProperties;
+import com.scaler.auth_server.config.PasswordHashingProperties;
+import com.scaler.auth_server.config.PasswordHashingProperties.Algorithm;
+import com.scaler.auth_server.dtos.ClientRegistrationResult;
+import com.scaler.auth_server.dtos.RegisterClientDto;
+import com.scaler.auth_server.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs batch registration on a two-thread hashing pool whose hashes of client secrets block until
+ * released, to check what a batch in flight leaves to logins.
+ */
+class ClientServiceTests {
+  private static final PasswordHashingProperties HASHING = new PasswordHashingProperties(2, 1,
+      Duration.ofSeconds(1), Algorithm.BCRYPT, 12, 3, false, Duration.ofMillis(250));
+  private static final RegisterClientDto CLIENT = new RegisterClientDto("client",
+      List.of("client_secret_basic"), List.of("client_credentials"), List.of(), List.of(),
+      List.of("read"), false);
+
+  @Test
+  void loginIsServedWhileABatchIsHashing() throws Exception {
+    CountDownLatch hashing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    PasswordEncoder secretHashes = new PasswordEncoder() {
+      @Override
+      public String encode(CharSequence rawPassword) {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        hashing.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+        inFlight.decrementAndGet();
+        return "{noop}" + rawPassword;
+      }
+
+      @Override
+      public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return true;
+      }
+    };
+
+    try (BoundedPasswordEncoder passwordEncoder =
+        new BoundedPasswordEncoder(secretHashes, HASHING, new SimpleMeterRegistry())) {
+      JpaRegisteredClientRepository registeredClientRepository =
+          mock(JpaRegisteredClientRepository.class);
+      ClientService clientService = new ClientService(registeredClientRepository, passwordEncoder,
+          new TransactionTemplate(mock(PlatformTransactionManager.class)),
+          new ClientRegistrationProperties(10000, 100, 0), HASHING);
+      List<ClientRegistrationResult> results = Collections.synchronizedList(new ArrayList<>());
+      CompletableFuture<Void> batch = CompletableFuture.runAsync(
+          () -> clientService.registerClients(Collections.nCopies(10, CLIENT), results::add));
+      assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+
+      boolean matched = CompletableFuture
+          .supplyAsync(() -> passwordEncoder.matches("password", "{noop}password"))
+          .get(5, TimeUnit.SECONDS);
+      assertThat(matched).isTrue();
+      assertThat(batch).isNotDone();
+
+      release.countDown();
+      batch.get(10, TimeUnit.SECONDS);
+      assertThat(maxInFlight).hasValue(1);
+      assertThat(results).isEmpty(); // no entry failed; the mocked insert returns no clients
+      verify(registeredClientRepository).insertAll(argThat(clients -> clients.size() == 10));
+    }
+  }
+}
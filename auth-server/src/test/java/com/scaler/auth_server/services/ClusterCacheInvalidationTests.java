@@ -0,0 +1,123 @@
+package com.scaler.auth_server.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationCode;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import com.scaler.auth_server.AuthServerApplication;
+
+/**
+ * Runs two auth-server nodes in one JVM against a shared in-memory database and checks that
+ * changes made on one node reach the other node's memory through the invalidation log.
+ */
+class ClusterCacheInvalidationTests {
+
+  private static final String DATABASE_URL =
+      "jdbc:h2:mem:cluster-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+
+  @Test
+  void clientSavedOnOneNodeIsRefreshedOnTheOtherNode() throws InterruptedException {
+    try (ConfigurableApplicationContext nodeA = startNode();
+        ConfigurableApplicationContext nodeB = startNode()) {
+      JpaRegisteredClientRepository repositoryA = nodeA.getBean(JpaRegisteredClientRepository.class);
+      JpaRegisteredClientRepository repositoryB = nodeB.getBean(JpaRegisteredClientRepository.class);
+
+      RegisteredClient registeredClient = RegisteredClient.withId(UUID.randomUUID().toString())
+          .clientId("cluster-client").clientSecret("{noop}secret")
+          .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
+          .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS).scope("read").build();
+      repositoryA.save(registeredClient);
+      assertThat(repositoryB.findByClientId("cluster-client").getScopes()).containsExactly("read");
+      assertThat(repositoryB.findById(registeredClient.getId()).getScopes())
+          .containsExactly("read");
+
+      repositoryA.save(RegisteredClient.from(registeredClient).scopes(scopes -> {
+        scopes.clear();
+        scopes.add("write");
+      }).build());
+
+      Instant deadline = Instant.now().plus(Duration.ofSeconds(10));
+      while (!repositoryB.findByClientId("cluster-client").getScopes().contains("write")
+          && Instant.now().isBefore(deadline)) {
+        Thread.sleep(50);
+      }
+      assertThat(repositoryB.findByClientId("cluster-client").getScopes())
+          .containsExactly("write");
+      assertThat(repositoryB.findById(registeredClient.getId()).getScopes())
+          .containsExactly("write");
+    }
+  }
+
+  @Test
+  void revocationOnOneNodeReachesTheOtherNode() {
+    // Node B only applies the log when polled by hand, so the revocation cannot reach it early
+    try (ConfigurableApplicationContext nodeA = startNode();
+        ConfigurableApplicationContext nodeB =
+            startNode("auth-server.cache-invalidation.poll-interval=1h")) {
+      RegisteredClient registeredClient = RegisteredClient.withId(UUID.randomUUID().toString())
+          .clientId("revocation-client").clientSecret("{noop}secret")
+          .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
+          .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+          .redirectUri("https://client.example.com/callback").scope("read").build();
+      nodeA.getBean(JpaRegisteredClientRepository.class).save(registeredClient);
+      TieredOAuth2AuthorizationService authorizationsB =
+          nodeB.getBean(TieredOAuth2AuthorizationService.class);
+      String principalName = "jane.doe@example.com";
+
+      // An unredeemed code, held in node B's memory only
+      Instant issuedAt = Instant.now();
+      OAuth2Authorization code = authorization(registeredClient, principalName)
+          .token(new OAuth2AuthorizationCode("code-" + UUID.randomUUID(), issuedAt,
+              issuedAt.plusSeconds(300)))
+          .build();
+      authorizationsB.save(code);
+      assertThat(authorizationsB.findById(code.getId())).isNotNull();
+
+      nodeA.getBean(AuthorizationManagementService.class).revokeByPrincipalName(principalName);
+      // Written by node B after the bulk delete on node A but before the broadcast reached it
+      OAuth2Authorization token = authorization(registeredClient, principalName)
+          .accessToken(new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+              "token-" + UUID.randomUUID(), issuedAt, issuedAt.plusSeconds(300)))
+          .build();
+      authorizationsB.save(token);
+      assertThat(authorizationsB.findById(code.getId())).isNotNull();
+
+      nodeB.getBean(CacheInvalidationService.class).poll();
+
+      assertThat(authorizationsB.findById(code.getId())).isNull();
+      assertThat(authorizationsB.findById(token.getId())).isNull();
+      assertThat(nodeA.getBean(TieredOAuth2AuthorizationService.class).findById(token.getId()))
+          .isNull();
+    }
+  }
+
+  private static OAuth2Authorization.Builder authorization(RegisteredClient registeredClient,
+      String principalName) {
+    return OAuth2Authorization.withRegisteredClient(registeredClient)
+        .id(UUID.randomUUID().toString()).principalName(principalName)
+        .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE);
+  }
+
+  private static ConfigurableApplicationContext startNode(String... properties) {
+    List<String> nodeProperties = new ArrayList<>(List.of(
+        "server.port=0", "spring.datasource.url=" + DATABASE_URL,
+        "spring.datasource.username=sa", "spring.datasource.password=",
+        "spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=update",
+        "auth-server.token-store.hot-tier-enabled=true",
+        "auth-server.cache-invalidation.poll-interval=100ms"));
+    nodeProperties.addAll(List.of(properties));
+    return new SpringApplicationBuilder(AuthServerApplication.class)
+        .properties(nodeProperties.toArray(String[]::new)).run();
+  }
+}
@@ -0,0 +1,73 @@
+package com.scaler.auth_server.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import com.scaler.auth_server.config.LoginThrottleProperties;
+import com.scaler.auth_server.config.LoginThrottleProperties.Store;
+import com.scaler.auth_server.exception.TooManyLoginAttemptsException;
+import com.scaler.auth_server.throttle.InMemoryTokenBucketStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the throttle on the in-memory store with refill periods far beyond the test's duration,
+ * so only consumed and refunded tokens decide the outcome.
+ */
+class LoginThrottleServiceTests {
+  private static final String ADDRESS = "203.0.113.7";
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final LoginThrottleService loginThrottleService = new LoginThrottleService(
+      new InMemoryTokenBucketStore(100000), new LoginThrottleProperties(true, Store.MEMORY, 100000,
+          3, Duration.ofHours(1), 10, Duration.ofHours(1), Duration.ofMinutes(10)),
+      this.meterRegistry);
+
+  @Test
+  void manyAccountsLoggingInFromOneAddressAreNotThrottled() {
+    for (int i = 0; i < 1000; i++) {
+      String email = "user" + i + "@example.com";
+      this.loginThrottleService.checkAllowed(email, ADDRESS);
+      this.loginThrottleService.loginSucceeded(email, ADDRESS);
+    }
+
+    assertThat(this.meterRegistry.get("auth.login.throttled").tag("limit", "address").counter()
+        .count()).isZero();
+  }
+
+  @Test
+  void addressAbsorbsHalfItsCapacityInFailures() {
+    for (int i = 0; i < 5; i++) {
+      String email = "user" + i + "@example.com";
+      this.loginThrottleService.checkAllowed(email, ADDRESS);
+      this.loginThrottleService.loginFailed(ADDRESS);
+      // Successful logins in between give back only their own attempt
+      this.loginThrottleService.checkAllowed("owner@example.com", ADDRESS);
+      this.loginThrottleService.loginSucceeded("owner@example.com", ADDRESS);
+    }
+
+    assertThatExceptionOfType(TooManyLoginAttemptsException.class)
+        .isThrownBy(() -> this.loginThrottleService.checkAllowed("next@example.com", ADDRESS));
+    assertThatExceptionOfType(TooManyLoginAttemptsException.class)
+        .isThrownBy(() -> this.loginThrottleService.checkAllowed("owner@example.com", ADDRESS));
+    this.loginThrottleService.checkAllowed("next@example.com", "198.51.100.1");
+  }
+
+  @Test
+  void accountIsThrottledAfterItsFailuresOnly() {
+    String email = "jane.doe@example.com";
+    for (int i = 0; i < 5; i++) {
+      this.loginThrottleService.checkAllowed(email, ADDRESS);
+      this.loginThrottleService.loginSucceeded(email, ADDRESS);
+    }
+    for (int i = 0; i < 3; i++) {
+      this.loginThrottleService.checkAllowed(email, "198.51.100." + i);
+    }
+
+    assertThatExceptionOfType(TooManyLoginAttemptsException.class)
+        .isThrownBy(() -> this.loginThrottleService.checkAllowed("Jane.Doe@example.com", ADDRESS));
+    assertThat(this.meterRegistry.get("auth.login.throttled").tag("limit", "account").counter()
+        .count()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,131 @@
+package com.scaler.auth_server.throttle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import com.scaler.auth_server.throttle.InMemoryTokenBucketStore.TokenBucket;
+
+/**
+ * Drives buckets with explicit times in milliseconds, so refill arithmetic is checked exactly.
+ */
+class InMemoryTokenBucketStoreTests {
+
+  private static final BucketLimit TWO_PER_SECOND = new BucketLimit(2, Duration.ofSeconds(1));
+
+  @Test
+  void emptyBucketReportsTheTimeUntilTheNextToken() {
+    TokenBucket bucket = new TokenBucket(TWO_PER_SECOND, 0);
+
+    assertThat(bucket.tryConsume(0)).isZero();
+    assertThat(bucket.tryConsume(0)).isZero();
+    assertThat(bucket.tryConsume(0)).isEqualTo(1000);
+    assertThat(bucket.tryConsume(400)).isEqualTo(600);
+    assertThat(bucket.tryConsume(999)).isEqualTo(1);
+    assertThat(bucket.tryConsume(1000)).isZero();
+    assertThat(bucket.tryConsume(1000)).isEqualTo(1000);
+  }
+
+  @Test
+  void partialTokensCarryOverToTheNextRefill() {
+    TokenBucket bucket = new TokenBucket(new BucketLimit(3, Duration.ofSeconds(1)), 0);
+    for (int i = 0; i < 3; i++) {
+      assertThat(bucket.tryConsume(0)).isZero();
+    }
+
+    // 1.5 tokens regained: one is taken, the half left over counts towards the next
+    assertThat(bucket.tryConsume(1500)).isZero();
+    assertThat(bucket.tryConsume(1500)).isEqualTo(500);
+    assertThat(bucket.tryConsume(2000)).isZero();
+  }
+
+  @Test
+  void elapsedTimeWorthLessThanAThousandthIsNotLost() {
+    TokenBucket bucket = new TokenBucket(new BucketLimit(1, Duration.ofSeconds(3)), 0);
+    assertThat(bucket.tryConsume(0)).isZero();
+
+    for (long now = 1; now < 3000; now += 1) {
+      assertThat(bucket.tryConsume(now)).isEqualTo(3000 - now);
+    }
+    assertThat(bucket.tryConsume(3000)).isZero();
+  }
+
+  @Test
+  void refillStopsAtCapacity() {
+    TokenBucket bucket = new TokenBucket(TWO_PER_SECOND, 0);
+    assertThat(bucket.tryConsume(0)).isZero();
+    assertThat(bucket.tryConsume(0)).isZero();
+
+    long later = TimeUnit.HOURS.toMillis(1);
+    assertThat(bucket.tryConsume(later)).isZero();
+    assertThat(bucket.tryConsume(later)).isZero();
+    assertThat(bucket.tryConsume(later)).isEqualTo(1000);
+  }
+
+  @Test
+  void refundReturnsOneTokenUpToCapacity() {
+    TokenBucket bucket = new TokenBucket(TWO_PER_SECOND, 0);
+    bucket.refund();
+    bucket.refund();
+
+    assertThat(bucket.tryConsume(0)).isZero();
+    assertThat(bucket.tryConsume(0)).isZero();
+    assertThat(bucket.tryConsume(0)).isEqualTo(1000);
+
+    bucket.refund();
+    assertThat(bucket.tryConsume(0)).isZero();
+    assertThat(bucket.tryConsume(0)).isEqualTo(1000);
+  }
+
+  @Test
+  void concurrentConsumersNeverTakeMoreThanTheCapacity() throws Exception {
+    int capacity = 1000;
+    int threads = 8;
+    TokenBucket bucket = new TokenBucket(new BucketLimit(capacity, Duration.ofHours(1)), 0);
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Integer>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        results.add(executor.submit(() -> {
+          start.await();
+          int consumed = 0;
+          for (int attempt = 0; attempt < capacity; attempt++) {
+            if (bucket.tryConsume(0) == 0) {
+              consumed++;
+            }
+          }
+          return consumed;
+        }));
+      }
+      start.countDown();
+      int consumed = 0;
+      for (Future<Integer> result : results) {
+        consumed += result.get(10, TimeUnit.SECONDS);
+      }
+
+      assertThat(consumed).isEqualTo(capacity);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void storeKeepsOneBucketPerKey() {
+    InMemoryTokenBucketStore store = new InMemoryTokenBucketStore(100);
+    BucketLimit limit = new BucketLimit(1, Duration.ofHours(1));
+
+    assertThat(store.tryConsume("a", limit)).isZero();
+    assertThat(store.tryConsume("a", limit)).isPositive();
+    assertThat(store.tryConsume("b", limit)).isZero();
+
+    store.refund("a", limit);
+    assertThat(store.tryConsume("a", limit)).isZero();
+  }
+}
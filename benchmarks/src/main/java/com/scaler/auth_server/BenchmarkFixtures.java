@@ -0,0 +1,107 @@
+package com.scaler.auth_server;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcScopes;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationCode;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.settings.ClientSettings;
+import org.springframework.security.oauth2.server.authorization.settings.TokenSettings;
+import com.scaler.auth_server.dtos.RegisterClientDto;
+
+/**
+ * In-memory fixtures shared by the benchmarks, so none of them needs a database.
+ */
+public final class BenchmarkFixtures {
+
+  private BenchmarkFixtures() {}
+
+  /**
+   * Returns a stand-in for a collaborator the benchmarked code path never calls.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> T unused(Class<T> type) {
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+        (proxy, method, args) -> {
+          if (method.getDeclaringClass() == Object.class) {
+            return switch (method.getName()) {
+              case "hashCode" -> System.identityHashCode(proxy);
+              case "equals" -> proxy == args[0];
+              default -> type.getSimpleName() + " stand-in";
+            };
+          }
+          throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+        });
+  }
+
+  public static RegisteredClient registeredClient() {
+    return RegisteredClient.withId(UUID.randomUUID().toString())
+        .clientId(UUID.randomUUID().toString()).clientIdIssuedAt(Instant.now())
+        .clientSecret("{bcrypt}$2a$10$uV3V8H8mDk8L2b8kP0rDqO5n2eS0m4GZ4wqz6Xl5mJ3H0a1b2c3d4")
+        .clientName("storefront")
+        .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
+        .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+        .authorizationGrantType(AuthorizationGrantType.REFRESH_TOKEN)
+        .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+        .redirectUri("http://localhost:5173/callback")
+        .postLogoutRedirectUri("http://localhost:5173/").scope(OidcScopes.OPENID)
+        .scope(OidcScopes.PROFILE).scope("orders.read")
+        .clientSettings(ClientSettings.builder().requireAuthorizationConsent(true).build())
+        .tokenSettings(TokenSettings.builder().build()).build();
+  }
+
+  public static RegisterClientDto registerClientDto() {
+    return new RegisterClientDto("storefront", List.of("client_secret_basic"),
+        List.of("authorization_code", "refresh_token", "client_credentials"),
+        List.of("http://localhost:5173/callback"), List.of("http://localhost:5173/"),
+        List.of("openid", "profile", "orders.read"), true);
+  }
+
+  /**
+   * An authorization at the end of an authorization_code flow: invalidated code, access, refresh
+   * and ID token.
+   */
+  public static OAuth2Authorization authorization(RegisteredClient registeredClient) {
+    Instant issuedAt = Instant.now();
+    Instant expiresAt = issuedAt.plus(Duration.ofMinutes(5));
+    Map<String, Object> claims = new LinkedHashMap<>();
+    claims.put("sub", "jane.doe@example.com");
+    claims.put("aud", List.of(registeredClient.getClientId()));
+    claims.put("scope", List.of("openid", "profile", "orders.read"));
+    claims.put("iss", "http://localhost:8080");
+    claims.put("iat", issuedAt.getEpochSecond());
+    claims.put("exp", expiresAt.getEpochSecond());
+    claims.put("jti", UUID.randomUUID().toString());
+
+    return OAuth2Authorization.withRegisteredClient(registeredClient)
+        .id(UUID.randomUUID().toString()).principalName("jane.doe@example.com")
+        .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+        .authorizedScopes(Set.of("openid", "profile", "orders.read"))
+        .attribute(OAuth2ParameterNames.STATE, UUID.randomUUID().toString())
+        .token(new OAuth2AuthorizationCode(UUID.randomUUID().toString(), issuedAt, expiresAt),
+            metadata -> metadata.put(OAuth2Authorization.Token.INVALIDATED_METADATA_NAME, true))
+        .token(
+            new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                "eyJraWQiOiJiZW5jaCIsImFsZyI6IlJTMjU2In0." + UUID.randomUUID(), issuedAt,
+                expiresAt, Set.of("openid", "profile", "orders.read")),
+            metadata -> metadata.put(OAuth2Authorization.Token.CLAIMS_METADATA_NAME, claims))
+        .refreshToken(new OAuth2RefreshToken(UUID.randomUUID().toString(), issuedAt,
+            issuedAt.plus(Duration.ofHours(1))))
+        .token(new OidcIdToken("eyJraWQiOiJiZW5jaCIsImFsZyI6IlJTMjU2In0." + UUID.randomUUID(),
+            issuedAt, expiresAt, claims))
+        .build();
+  }
+}
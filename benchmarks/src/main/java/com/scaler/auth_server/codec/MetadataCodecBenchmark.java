@@ -0,0 +1,80 @@
+package com.scaler.auth_server.codec;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Decode cost of one authorization metadata column: the previous per-call
+ * {@code readValue(data, new TypeReference<>() {})} path against the JSON and Smile codecs.
+ * Run with {@code -prof gc} to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetadataCodecBenchmark {
+
+  @Param({"invalidated", "accessTokenClaims"})
+  public String payload;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private JsonMetadataCodec jsonCodec;
+  private SmileMetadataCodec smileCodec;
+  private String json;
+  private String smile;
+
+  @Setup
+  public void setUp() {
+    this.jsonCodec = new JsonMetadataCodec(this.objectMapper);
+    this.smileCodec = new SmileMetadataCodec(this.objectMapper);
+    Map<String, Object> metadata = new LinkedHashMap<>();
+    metadata.put("metadata.token.invalidated", false);
+    if ("accessTokenClaims".equals(this.payload)) {
+      Map<String, Object> claims = new LinkedHashMap<>();
+      claims.put("sub", "jane.doe@example.com");
+      claims.put("aud", List.of("8c0f4c1e-6a4b-4f7e-9d55-3f0b1f2b1a77"));
+      claims.put("nbf", Instant.now().getEpochSecond());
+      claims.put("scope", List.of("openid", "profile", "orders.read"));
+      claims.put("iss", "http://localhost:8080");
+      claims.put("exp", Instant.now().plusSeconds(300).getEpochSecond());
+      claims.put("iat", Instant.now().getEpochSecond());
+      claims.put("jti", "0f8fad5b-d9cb-469f-a165-70867728950e");
+      metadata.put("metadata.token.claims", claims);
+    }
+    this.json = this.jsonCodec.encode(metadata);
+    this.smile = this.smileCodec.encode(metadata);
+  }
+
+  @Benchmark
+  public Map<String, Object> legacyReadValue() {
+    return this.objectMapper.readValue(this.json, new TypeReference<Map<String, Object>>() {});
+  }
+
+  @Benchmark
+  public Map<String, Object> jsonCodec() {
+    return this.jsonCodec.decode(this.json);
+  }
+
+  @Benchmark
+  public Map<String, Object> smileCodec() {
+    return this.smileCodec.decode(this.smile);
+  }
+}
@@ -0,0 +1,82 @@
+package com.scaler.auth_server.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.scaler.auth_server.security.CachingJwtDecoder;
+import com.scaler.auth_server.services.JwkSetService;
+
+/**
+ * Signing and verification of the login token for each supported key algorithm, with keys as
+ * generated by {@link JwkSetService}, the {@code NimbusJwtEncoder} that {@link JwkSetService}
+ * wires to the active key and the decoder from {@link SecurityConfig}, with and without the
+ * verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtEncodingBenchmark {
+
+  @Param({"RS256", "ES256", "EDDSA"})
+  public JwkProperties.Algorithm algorithm;
+
+  private JwtEncoder jwtEncoder;
+  private JwtDecoder jwtDecoder;
+  private JwtDecoder cachingJwtDecoder;
+  private JwtEncoderParameters parameters;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    JWK jwk = JwkSetService.generateKey(this.algorithm);
+    this.jwtEncoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(jwk)));
+    this.jwtDecoder =
+        SecurityConfig.verifyingJwtDecoder(new ImmutableJWKSet<>(new JWKSet(jwk.toPublicJWK())));
+    this.cachingJwtDecoder = new CachingJwtDecoder(this.jwtDecoder, 10_000, Duration.ofMinutes(5));
+    Instant issuedAt = Instant.now();
+    JwsHeader header = JwsHeader.with(() -> jwk.getAlgorithm().getName()).build();
+    this.parameters = JwtEncoderParameters.from(header, JwtClaimsSet.builder()
+        .subject("jane.doe@example.com").issuedAt(issuedAt)
+        .expiresAt(issuedAt.plusSeconds(60 * 60)).claim("userId", 42L).build());
+    this.token = this.jwtEncoder.encode(this.parameters).getTokenValue();
+  }
+
+  @Benchmark
+  public Jwt encode() {
+    return this.jwtEncoder.encode(this.parameters);
+  }
+
+  @Benchmark
+  public Jwt decode() {
+    return this.jwtDecoder.decode(this.token);
+  }
+
+  @Benchmark
+  public Jwt decodeCached() {
+    return this.cachingJwtDecoder.decode(this.token);
+  }
+}
@@ -0,0 +1,60 @@
+package com.scaler.auth_server.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import com.scaler.auth_server.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Password verification at login through the {@code DelegatingPasswordEncoder} built by
+ * {@link SecurityConfig} for each scheme at the default work factors, including the hand-off to
+ * the bounded hashing executor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+  @Param({"BCRYPT", "ARGON2"})
+  public PasswordHashingProperties.Algorithm algorithm;
+
+  private BoundedPasswordEncoder passwordEncoder;
+  private String encodedPassword;
+
+  @Setup
+  public void setUp() {
+    SecurityConfig securityConfig = new SecurityConfig(new UrlBasedCorsConfigurationSource());
+    PasswordHashingProperties hashingProperties = new PasswordHashingProperties(0, 64,
+        Duration.ofSeconds(1), this.algorithm, 12, 3, false, Duration.ofMillis(250));
+    this.passwordEncoder = (BoundedPasswordEncoder) securityConfig.passwordEncoder(
+        securityConfig.calibratedPasswordEncoder(hashingProperties), hashingProperties,
+        new SimpleMeterRegistry());
+    this.encodedPassword = this.passwordEncoder.encode("correct horse battery staple");
+  }
+
+  @Benchmark
+  public boolean matches() {
+    return this.passwordEncoder.matches("correct horse battery staple", this.encodedPassword);
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.passwordEncoder.close();
+  }
+}
@@ -0,0 +1,76 @@
+package com.scaler.auth_server.services;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.client.InMemoryRegisteredClientRepository;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import com.scaler.auth_server.BenchmarkFixtures;
+import com.scaler.auth_server.codec.JsonMetadataCodec;
+import com.scaler.auth_server.codec.MetadataCodec;
+import com.scaler.auth_server.codec.SmileMetadataCodec;
+import com.scaler.auth_server.models.Authorization;
+import com.scaler.auth_server.repositories.AuthorizationRepository;
+import com.scaler.auth_server.repositories.AuthorizationTokenLookupRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * {@link JpaOAuth2AuthorizationService} entity conversion, the CPU part of every authorization
+ * save and token lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorizationConversionBenchmark {
+
+  @Param({"json", "smile"})
+  public String metadataFormat;
+
+  private JpaOAuth2AuthorizationService authorizationService;
+  private OAuth2Authorization authorization;
+  private Authorization entity;
+
+  @Setup
+  public void setUp() {
+    RegisteredClient registeredClient = BenchmarkFixtures.registeredClient();
+    MetadataCodec metadataCodec = "smile".equals(this.metadataFormat)
+        ? new SmileMetadataCodec(new ObjectMapper())
+        : new JsonMetadataCodec(new ObjectMapper());
+    this.authorizationService = new JpaOAuth2AuthorizationService(
+        BenchmarkFixtures.unused(AuthorizationRepository.class),
+        BenchmarkFixtures.unused(AuthorizationTokenLookupRepository.class),
+        new InMemoryRegisteredClientRepository(registeredClient), metadataCodec,
+        new SimpleMeterRegistry());
+    this.authorization = BenchmarkFixtures.authorization(registeredClient);
+    this.entity = this.authorizationService.toEntity(this.authorization);
+  }
+
+  @Benchmark
+  public Authorization toEntity() {
+    return this.authorizationService.toEntity(this.authorization);
+  }
+
+  @Benchmark
+  public OAuth2Authorization toObject() {
+    return this.authorizationService.toObject(this.entity);
+  }
+
+  @Benchmark
+  public OAuth2Authorization roundTrip() {
+    return this.authorizationService.toObject(this.authorizationService.toEntity(this.authorization));
+  }
+}
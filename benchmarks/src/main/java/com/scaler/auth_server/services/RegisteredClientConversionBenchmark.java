@@ -0,0 +1,73 @@
+package com.scaler.auth_server.services;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import com.scaler.auth_server.BenchmarkFixtures;
+import com.scaler.auth_server.config.CacheInvalidationProperties;
+import com.scaler.auth_server.config.ClientCacheProperties;
+import com.scaler.auth_server.dtos.RegisterClientDto;
+import com.scaler.auth_server.dtos.RegisterClientResponseDto;
+import com.scaler.auth_server.mappers.ClientMapper;
+import com.scaler.auth_server.models.Client;
+import com.scaler.auth_server.repositories.CacheInvalidationRepository;
+import com.scaler.auth_server.repositories.ClientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Client conversions: the cache-miss path of {@link JpaRegisteredClientRepository} and the
+ * {@link ClientMapper} calls made while registering a client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegisteredClientConversionBenchmark {
+
+  private JpaRegisteredClientRepository registeredClientRepository;
+  private RegisterClientDto registerClientDto;
+  private Client client;
+
+  @Setup
+  public void setUp() {
+    CacheInvalidationService cacheInvalidationService = new CacheInvalidationService(
+        BenchmarkFixtures.unused(CacheInvalidationRepository.class),
+        new CacheInvalidationProperties(Duration.ofSeconds(2), 500, Duration.ofSeconds(10),
+            Duration.ofHours(1)));
+    this.registeredClientRepository =
+        new JpaRegisteredClientRepository(BenchmarkFixtures.unused(ClientRepository.class),
+            cacheInvalidationService, new ClientCacheProperties(10_000, Duration.ofMinutes(10)),
+            new SimpleMeterRegistry());
+    this.registerClientDto = BenchmarkFixtures.registerClientDto();
+    this.client = this.registeredClientRepository.toEntity(BenchmarkFixtures.registeredClient());
+    this.client.setPlainSecret("plain-secret");
+  }
+
+  @Benchmark
+  public RegisteredClient repositoryToObject() {
+    return this.registeredClientRepository.toObject(this.client);
+  }
+
+  @Benchmark
+  public RegisteredClient mapperToRegisteredClient() {
+    return ClientMapper.toRegisteredClient(this.registerClientDto, "client-id",
+        "{bcrypt}$2a$10$uV3V8H8mDk8L2b8kP0rDqO5n2eS0m4GZ4wqz6Xl5mJ3H0a1b2c3d4");
+  }
+
+  @Benchmark
+  public RegisterClientResponseDto mapperToResponse() {
+    return ClientMapper.toResponse(this.client);
+  }
+}
@@ -0,0 +1,233 @@
+package com.scaler.auth_server.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.springframework.web.util.UriComponentsBuilder;
+import com.scaler.auth_server.dtos.LoginRequestDto;
+import com.scaler.auth_server.dtos.RegisterClientDto;
+import com.scaler.auth_server.dtos.RegisterUserDto;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * The HTTP calls of every scenario, made the way a browser or client application would. Any
+ * unexpected status fails the call with a {@link LoadTestException}, which counts as an error.
+ */
+final class AuthServerClient {
+  static final String CLIENT_SCOPE = "load.test";
+  private static final String REDIRECT_URI = "http://127.0.0.1/load-test/callback";
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+  private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+  // The hidden input of the login form, with its attributes in either order
+  private static final Pattern CSRF_TOKEN = Pattern.compile(
+      "name=\"_csrf\"[^>]*value=\"([^\"]+)\"|value=\"([^\"]+)\"[^>]*name=\"_csrf\"");
+
+  private final URI baseUri;
+  private final HttpClient httpClient;
+  private final ObjectMapper objectMapper = JsonMapper.builder().build();
+  private final SecureRandom random = new SecureRandom();
+
+  AuthServerClient(URI baseUri) {
+    this.baseUri = baseUri;
+    this.httpClient = newHttpClient(null);
+  }
+
+  void register(String name, String email, String password) {
+    send(this.httpClient, json("/api/auth/register", new RegisterUserDto(name, email, password)),
+        200);
+  }
+
+  /**
+   * Logs the user in and returns the access token of the response.
+   */
+  String login(String email, String password) {
+    Map<String, Object> body = readJson(
+        send(this.httpClient, json("/api/auth/login", new LoginRequestDto(email, password)), 200));
+    return field(body, "data", "token");
+  }
+
+  void userInfo(String accessToken) {
+    send(this.httpClient, request("/api/users/me").header("Authorization", "Bearer " + accessToken)
+        .GET().build(), 200);
+  }
+
+  /**
+   * Registers a confidential client allowed to use every grant the scenarios need.
+   */
+  ClientCredentials registerClient(String accessToken) {
+    RegisterClientDto registerClientDto = new RegisterClientDto("load-test",
+        List.of("client_secret_basic"),
+        List.of("client_credentials", "authorization_code", "refresh_token"),
+        List.of(REDIRECT_URI), List.of(), List.of("openid", "profile", CLIENT_SCOPE), false);
+    HttpRequest request = request("/clients/register")
+        .header("Authorization", "Bearer " + accessToken)
+        .header("Content-Type", "application/json")
+        .POST(BodyPublishers.ofString(this.objectMapper.writeValueAsString(registerClientDto)))
+        .build();
+    Map<String, Object> body = readJson(send(this.httpClient, request, 200));
+    return new ClientCredentials(field(body, "data", "clientId"),
+        field(body, "data", "clientSecret"));
+  }
+
+  String clientCredentials(ClientCredentials client) {
+    return token(client, Map.of("grant_type", "client_credentials", "scope", CLIENT_SCOPE))
+        .accessToken();
+  }
+
+  Tokens refresh(ClientCredentials client, String refreshToken) {
+    return token(client, Map.of("grant_type", "refresh_token", "refresh_token", refreshToken));
+  }
+
+  /**
+   * Runs the authorization code flow with PKCE in a fresh cookie session: authorize, form login,
+   * authorize again for the code, then exchange it.
+   */
+  Tokens authorizationCode(ClientCredentials client, String email, String password) {
+    HttpClient session = newHttpClient(new CookieManager());
+    String codeVerifier = randomString();
+    String state = randomString();
+    URI authorizeUri = UriComponentsBuilder.fromUri(this.baseUri).path("/oauth2/authorize")
+        .queryParam("response_type", "code").queryParam("client_id", client.clientId())
+        .queryParam("redirect_uri", REDIRECT_URI).queryParam("scope", "openid profile")
+        .queryParam("state", state).queryParam("code_challenge", codeChallenge(codeVerifier))
+        .queryParam("code_challenge_method", "S256").encode().build().toUri();
+    HttpRequest authorize =
+        HttpRequest.newBuilder(authorizeUri).timeout(REQUEST_TIMEOUT).GET().build();
+
+    String loginLocation = location(send(session, authorize, 302));
+    String loginPage = send(session, HttpRequest.newBuilder(this.baseUri.resolve(loginLocation))
+        .timeout(REQUEST_TIMEOUT).GET().build(), 200).body();
+    Map<String, String> form = new LinkedHashMap<>();
+    form.put("username", email);
+    form.put("password", password);
+    Matcher csrfToken = CSRF_TOKEN.matcher(loginPage);
+    if (csrfToken.find()) {
+      form.put("_csrf", csrfToken.group(1) != null ? csrfToken.group(1) : csrfToken.group(2));
+    }
+    send(session, form(this.baseUri.resolve(loginLocation), form).build(), 302);
+
+    URI callback = URI.create(location(send(session, authorize, 302)));
+    Map<String, List<String>> parameters =
+        UriComponentsBuilder.fromUri(callback).build().getQueryParams();
+    if (!List.of(state).equals(parameters.get("state")) || !parameters.containsKey("code")) {
+      throw new LoadTestException("Authorization did not redirect with a code: " + callback);
+    }
+    return token(client, Map.of("grant_type", "authorization_code", "code",
+        parameters.get("code").getFirst(), "redirect_uri", REDIRECT_URI, "code_verifier",
+        codeVerifier));
+  }
+
+  private Tokens token(ClientCredentials client, Map<String, String> parameters) {
+    String credentials = Base64.getEncoder().encodeToString(
+        (client.clientId() + ":" + client.clientSecret()).getBytes(StandardCharsets.UTF_8));
+    HttpRequest request = form(this.baseUri.resolve("/oauth2/token"), parameters)
+        .header("Authorization", "Basic " + credentials).build();
+    Map<String, Object> body = readJson(send(this.httpClient, request, 200));
+    return new Tokens((String) body.get("access_token"), (String) body.get("refresh_token"));
+  }
+
+  private HttpRequest json(String path, Object value) {
+    return request(path).header("Content-Type", "application/json")
+        .POST(BodyPublishers.ofString(this.objectMapper.writeValueAsString(value))).build();
+  }
+
+  private HttpRequest.Builder request(String path) {
+    return HttpRequest.newBuilder(this.baseUri.resolve(path)).timeout(REQUEST_TIMEOUT);
+  }
+
+  private static HttpRequest.Builder form(URI uri, Map<String, String> parameters) {
+    String body = parameters.entrySet().stream()
+        .map(entry -> URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8) + "="
+            + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+        .collect(Collectors.joining("&"));
+    return HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT)
+        .header("Content-Type", "application/x-www-form-urlencoded")
+        .POST(BodyPublishers.ofString(body));
+  }
+
+  private static HttpResponse<String> send(HttpClient client, HttpRequest request,
+      int expectedStatus) {
+    HttpResponse<String> response;
+    try {
+      response = client.send(request, BodyHandlers.ofString());
+    } catch (IOException ex) {
+      throw new LoadTestException(request.method() + " " + request.uri().getPath() + " failed: "
+          + ex.getMessage(), ex);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new LoadTestException("Interrupted during " + request.uri().getPath(), ex);
+    }
+    if (response.statusCode() != expectedStatus) {
+      throw new LoadTestException(request.method() + " " + request.uri().getPath()
+          + " returned " + response.statusCode() + " instead of " + expectedStatus);
+    }
+    return response;
+  }
+
+  private Map<String, Object> readJson(HttpResponse<String> response) {
+    return this.objectMapper.readValue(response.body(), MAP_TYPE);
+  }
+
+  private static String location(HttpResponse<String> response) {
+    return response.headers().firstValue("Location").orElseThrow(
+        () -> new LoadTestException(response.uri().getPath() + " redirected without a location"));
+  }
+
+  private static String field(Map<String, Object> body, String object, String name) {
+    if (body.get(object) instanceof Map<?, ?> nested && nested.get(name) instanceof String value) {
+      return value;
+    }
+    throw new LoadTestException("Response has no " + object + "." + name);
+  }
+
+  private String randomString() {
+    byte[] bytes = new byte[32];
+    this.random.nextBytes(bytes);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+  }
+
+  private static String codeChallenge(String codeVerifier) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256")
+          .digest(codeVerifier.getBytes(StandardCharsets.US_ASCII));
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 is not available", ex);
+    }
+  }
+
+  private static HttpClient newHttpClient(CookieManager cookieManager) {
+    HttpClient.Builder builder = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(REQUEST_TIMEOUT);
+    if (cookieManager != null) {
+      builder.cookieHandler(cookieManager);
+    }
+    return builder.build();
+  }
+
+  record ClientCredentials(String clientId, String clientSecret) {
+  }
+
+  record Tokens(String accessToken, String refreshToken) {
+  }
+}
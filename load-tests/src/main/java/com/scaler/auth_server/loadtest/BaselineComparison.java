@@ -0,0 +1,44 @@
+package com.scaler.auth_server.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.scaler.auth_server.loadtest.LoadTestReport.ScenarioSummary;
+
+/**
+ * Compares a run with the summary of an earlier one. A scenario regresses when its p99 latency
+ * grows or its throughput shrinks by more than the tolerance, or when its error rate rises by more
+ * than one percentage point. Scenarios that did not run in the baseline are not compared.
+ */
+final class BaselineComparison {
+  private static final double ERROR_RATE_TOLERANCE = 0.01;
+
+  private BaselineComparison() {}
+
+  static List<String> regressions(LoadTestReport baseline, LoadTestReport current,
+      double tolerance) {
+    List<String> regressions = new ArrayList<>();
+    for (ScenarioSummary expected : baseline.scenarios()) {
+      if (expected.completed() == 0) {
+        continue;
+      }
+      ScenarioSummary actual = current.scenario(expected.scenario());
+      if (actual == null || actual.completed() == 0) {
+        regressions.add(expected.scenario() + " did not complete any operation");
+        continue;
+      }
+      if (actual.p99() > expected.p99() * (1 + tolerance)) {
+        regressions.add(String.format("%s p99 %.2f ms exceeds baseline %.2f ms",
+            expected.scenario(), actual.p99(), expected.p99()));
+      }
+      if (actual.throughput() < expected.throughput() * (1 - tolerance)) {
+        regressions.add(String.format("%s throughput %.1f ops/s is below baseline %.1f ops/s",
+            expected.scenario(), actual.throughput(), expected.throughput()));
+      }
+      if (actual.errorRate() > expected.errorRate() + ERROR_RATE_TOLERANCE) {
+        regressions.add(String.format("%s error rate %.2f%% exceeds baseline %.2f%%",
+            expected.scenario(), actual.errorRate() * 100, expected.errorRate() * 100));
+      }
+    }
+    return regressions;
+  }
+}
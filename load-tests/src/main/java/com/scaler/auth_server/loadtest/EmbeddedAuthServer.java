@@ -0,0 +1,74 @@
+package com.scaler.auth_server.loadtest;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import com.scaler.auth_server.AuthServerApplication;
+import com.scaler.auth_server.loadtest.LoadTestOptions.Database;
+
+/**
+ * An auth-server booted in this JVM on a random port, plus the form login of
+ * {@link LoadTestLoginConfiguration}. With H2 the schema is created by Hibernate, as in the
+ * cluster tests; with PostgreSQL a throwaway container is started and Flyway migrates it, so the
+ * indexes match production.
+ */
+final class EmbeddedAuthServer implements AutoCloseable {
+  private final PostgreSQLContainer postgres;
+  private final ConfigurableApplicationContext context;
+
+  private EmbeddedAuthServer(PostgreSQLContainer postgres,
+      ConfigurableApplicationContext context) {
+    this.postgres = postgres;
+    this.context = context;
+  }
+
+  static EmbeddedAuthServer start(Database database, Map<String, String> applicationProperties) {
+    List<String> properties = new ArrayList<>();
+    properties.add("server.port=0");
+    PostgreSQLContainer postgres = null;
+    if (database == Database.POSTGRES) {
+      postgres = new PostgreSQLContainer("postgres:17-alpine");
+      postgres.start();
+      properties.add("spring.datasource.url=" + postgres.getJdbcUrl());
+      properties.add("spring.datasource.username=" + postgres.getUsername());
+      properties.add("spring.datasource.password=" + postgres.getPassword());
+    } else {
+      properties.add("spring.datasource.url=jdbc:h2:mem:load-test-" + UUID.randomUUID()
+          + ";DB_CLOSE_DELAY=-1");
+      properties.add("spring.datasource.username=sa");
+      properties.add("spring.datasource.password=");
+      properties.add("spring.flyway.enabled=false");
+      properties.add("spring.jpa.hibernate.ddl-auto=update");
+    }
+    applicationProperties.forEach((name, value) -> properties.add(name + "=" + value));
+    try {
+      ConfigurableApplicationContext context =
+          new SpringApplicationBuilder(AuthServerApplication.class,
+              LoadTestLoginConfiguration.class).properties(properties.toArray(String[]::new)).run();
+      return new EmbeddedAuthServer(postgres, context);
+    } catch (RuntimeException ex) {
+      if (postgres != null) {
+        postgres.stop();
+      }
+      throw ex;
+    }
+  }
+
+  URI baseUri() {
+    return URI.create(
+        "http://localhost:" + this.context.getEnvironment().getProperty("local.server.port"));
+  }
+
+  @Override
+  public void close() {
+    this.context.close();
+    if (this.postgres != null) {
+      this.postgres.stop();
+    }
+  }
+}
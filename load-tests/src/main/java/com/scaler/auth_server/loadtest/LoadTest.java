@@ -0,0 +1,69 @@
+package com.scaler.auth_server.loadtest;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.scaler.auth_server.loadtest.OpenModelDriver.Run;
+
+/**
+ * Drives auth-server with a mix of login and OAuth2 flows at a fixed arrival rate and reports
+ * per-scenario latency distributions and throughput. Without {@code --target} it boots auth-server
+ * in this JVM (see {@link EmbeddedAuthServer}). With {@code --baseline} the run is compared with
+ * an earlier {@code summary.json} and the process exits with status 1 on a regression, so the
+ * check can gate a build. {@code startup} as the first argument runs the
+ * {@link StartupBenchmark} instead.
+ */
+public final class LoadTest {
+  private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+  private LoadTest() {}
+
+  public static void main(String[] args) throws Exception {
+    if (args.length > 0 && args[0].equals("startup")) {
+      System.exit(StartupBenchmark.run(Arrays.copyOfRange(args, 1, args.length)));
+    }
+    LoadTestOptions options = LoadTestOptions.parse(args);
+    int status;
+    if (options.target() != null) {
+      status = run(options, URI.create(options.target()));
+    } else {
+      try (EmbeddedAuthServer server =
+          EmbeddedAuthServer.start(options.database(), options.applicationProperties())) {
+        status = run(options, server.baseUri());
+      }
+    }
+    System.exit(status);
+  }
+
+  private static int run(LoadTestOptions options, URI baseUri) throws Exception {
+    Workload workload = Workload.seed(new AuthServerClient(baseUri), options.users());
+    OpenModelDriver driver = new OpenModelDriver(options.rate(), options.maxConcurrency(),
+        options.mix(), workload);
+    if (!options.warmup().isZero()) {
+      log.info("Warming up at {} ops/s for {}", options.rate(), options.warmup());
+      driver.run(options.warmup());
+    }
+    log.info("Measuring at {} ops/s for {}", options.rate(), options.duration());
+    Run run = driver.run(options.duration());
+
+    LoadTestReport report = LoadTestReport.of(options.rate(), run);
+    report.print(System.out);
+    report.write(options.output(), run);
+    log.info("Wrote summary.json and latency distributions to {}", options.output());
+
+    if (options.baseline() == null) {
+      return 0;
+    }
+    List<String> regressions = BaselineComparison.regressions(
+        LoadTestReport.read(options.baseline()), report, options.tolerance());
+    if (regressions.isEmpty()) {
+      log.info("No regression against {} (tolerance {})", options.baseline(),
+          options.tolerance());
+      return 0;
+    }
+    regressions.forEach(regression -> log.error("Regression: {}", regression));
+    return 1;
+  }
+}
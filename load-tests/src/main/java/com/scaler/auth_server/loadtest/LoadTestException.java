@@ -0,0 +1,15 @@
+package com.scaler.auth_server.loadtest;
+
+/**
+ * A scenario call that did not get the response the flow expects.
+ */
+class LoadTestException extends RuntimeException {
+
+  LoadTestException(String message) {
+    super(message);
+  }
+
+  LoadTestException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
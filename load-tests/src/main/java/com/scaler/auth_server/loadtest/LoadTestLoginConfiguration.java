@@ -0,0 +1,29 @@
+package com.scaler.auth_server.loadtest;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * Form login at {@code /login}, where the authorization server sends unauthenticated
+ * {@code /oauth2/authorize} requests, so the authorization code and refresh scenarios can run
+ * against the embedded server. auth-server itself has no login page; this is only added to the
+ * context {@link EmbeddedAuthServer} boots. Not a {@code @Configuration}, so component scanning
+ * of auth-server's packages never picks it up.
+ */
+class LoadTestLoginConfiguration {
+
+  @Bean
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  SecurityFilterChain loadTestLoginSecurityFilterChain(HttpSecurity http) throws Exception {
+    // Signs in against auth-server's AuthenticationManager and keeps the session the
+    // authorization endpoint reads
+    http.securityMatcher("/login")
+        .authorizeHttpRequests(authorize -> authorize.anyRequest().permitAll())
+        .formLogin(Customizer.withDefaults());
+    return http.build();
+  }
+}
@@ -0,0 +1,86 @@
+package com.scaler.auth_server.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.util.Assert;
+
+/**
+ * Command line of the load test. Options are {@code --name=value}; any option it does not know is
+ * passed to the booted auth-server as an application property, so {@code --auth-server.*} and
+ * {@code --spring.*} settings can be varied between runs.
+ */
+record LoadTestOptions(String target, Database database, double rate, Duration duration,
+    Duration warmup, int users, int maxConcurrency, Map<Scenario, Integer> mix, Path output,
+    Path baseline, double tolerance, Map<String, String> applicationProperties) {
+
+  enum Database {
+    H2, POSTGRES
+  }
+
+  static LoadTestOptions parse(String[] args) {
+    Map<String, String> values = new LinkedHashMap<>();
+    for (String arg : args) {
+      Assert.isTrue(arg.startsWith("--") && arg.indexOf('=') > 2,
+          () -> "Expected --name=value but got " + arg);
+      int separator = arg.indexOf('=');
+      values.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+
+    String target = values.remove("target");
+    Database database =
+        Database.valueOf(take(values, "database", "h2").toUpperCase(Locale.ROOT));
+    double rate = Double.parseDouble(take(values, "rate", "100"));
+    Duration duration = DurationStyle.detectAndParse(take(values, "duration", "60s"));
+    Duration warmup = DurationStyle.detectAndParse(take(values, "warmup", "15s"));
+    int users = Integer.parseInt(take(values, "users", "100"));
+    int maxConcurrency = Integer.parseInt(take(values, "max-concurrency", "1000"));
+    Map<Scenario, Integer> mix = parseMix(take(values, "mix", ""));
+    Path output = Path.of(take(values, "output", "target/load-test"));
+    String baseline = values.remove("baseline");
+    double tolerance = Double.parseDouble(take(values, "tolerance", "0.10"));
+
+    Assert.isTrue(rate > 0, "rate must be positive");
+    Assert.isTrue(!duration.isNegative() && !duration.isZero(), "duration must be positive");
+    Assert.isTrue(!warmup.isNegative(), "warmup cannot be negative");
+    Assert.isTrue(users > 0, "users must be positive");
+    Assert.isTrue(maxConcurrency > 0, "max-concurrency must be positive");
+    Assert.isTrue(tolerance >= 0, "tolerance cannot be negative");
+    Assert.isTrue(target == null || values.isEmpty(),
+        () -> "Application properties " + values.keySet() + " cannot be applied to --target");
+    return new LoadTestOptions(target, database, rate, duration, warmup, users, maxConcurrency,
+        mix, output, baseline != null ? Path.of(baseline) : null, tolerance, values);
+  }
+
+  private static String take(Map<String, String> values, String name, String defaultValue) {
+    String value = values.remove(name);
+    return value != null ? value : defaultValue;
+  }
+
+  /**
+   * Parses {@code name=weight} pairs such as {@code login=10,me=90}. Scenarios that are not listed
+   * keep their default weight, so a single pair adjusts the default mix.
+   */
+  private static Map<Scenario, Integer> parseMix(String value) {
+    Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+    for (Scenario scenario : Scenario.values()) {
+      mix.put(scenario, scenario.defaultWeight());
+    }
+    if (!value.isBlank()) {
+      for (String pair : value.split(",")) {
+        String[] parts = pair.split("=", 2);
+        Assert.isTrue(parts.length == 2, () -> "Expected scenario=weight but got " + pair);
+        int weight = Integer.parseInt(parts[1].trim());
+        Assert.isTrue(weight >= 0, () -> "Weight of " + parts[0] + " cannot be negative");
+        mix.put(Scenario.fromName(parts[0].trim()), weight);
+      }
+    }
+    Assert.isTrue(mix.values().stream().mapToInt(Integer::intValue).sum() > 0,
+        "At least one scenario needs a positive weight");
+    return mix;
+  }
+}
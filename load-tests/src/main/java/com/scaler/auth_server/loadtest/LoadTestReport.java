@@ -0,0 +1,107 @@
+package com.scaler.auth_server.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+import com.scaler.auth_server.loadtest.OpenModelDriver.Run;
+import com.scaler.auth_server.loadtest.OpenModelDriver.ScenarioStats;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Summary of a measured run, written as {@code summary.json} so it can serve as the baseline of a
+ * later run. Latencies are in milliseconds, throughput in completed operations per second. The
+ * percentiles cover successful operations; failed ones are summarized separately.
+ */
+record LoadTestReport(double rate, double elapsedSeconds, List<ScenarioSummary> scenarios) {
+  private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().build();
+  private static final double MICROS_PER_MILLI = 1000.0;
+
+  static LoadTestReport of(double rate, Run run) {
+    double elapsedSeconds = run.elapsed().toNanos() / 1e9;
+    List<ScenarioSummary> scenarios = run.stats().entrySet().stream()
+        .map(entry -> ScenarioSummary.of(entry.getKey(), entry.getValue(), elapsedSeconds))
+        .toList();
+    return new LoadTestReport(rate, elapsedSeconds, scenarios);
+  }
+
+  static LoadTestReport read(Path file) {
+    return OBJECT_MAPPER.readValue(file.toFile(), LoadTestReport.class);
+  }
+
+  ScenarioSummary scenario(String name) {
+    return this.scenarios.stream().filter(summary -> summary.scenario().equals(name)).findFirst()
+        .orElse(null);
+  }
+
+  /**
+   * Writes {@code summary.json} and, per scenario, the full latency distributions in the
+   * HdrHistogram percentile format, which the HdrHistogram plotter reads: {@code <scenario>.hgrm}
+   * for successful operations and {@code <scenario>-failures.hgrm} for failed ones.
+   */
+  void write(Path directory, Run run) throws IOException {
+    Files.createDirectories(directory);
+    OBJECT_MAPPER.writerWithDefaultPrettyPrinter()
+        .writeValue(directory.resolve("summary.json").toFile(), this);
+    for (Map.Entry<Scenario, ScenarioStats> entry : run.stats().entrySet()) {
+      String name = entry.getKey().scenarioName();
+      writeDistribution(directory.resolve(name + ".hgrm"), entry.getValue().latencies);
+      writeDistribution(directory.resolve(name + "-failures.hgrm"),
+          entry.getValue().failureLatencies);
+    }
+  }
+
+  private static void writeDistribution(Path file, Histogram latencies) throws IOException {
+    try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+      latencies.outputPercentileDistribution(out, MICROS_PER_MILLI);
+    }
+  }
+
+  void print(PrintStream out) {
+    out.printf("%nOffered %.1f ops/s for %.1f s%n", this.rate, this.elapsedSeconds);
+    out.printf("%-20s %9s %7s %7s %9s %9s %9s %9s %9s %9s %11s%n", "scenario", "completed",
+        "errors", "dropped", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms",
+        "err p99 ms");
+    for (ScenarioSummary summary : this.scenarios) {
+      out.printf("%-20s %9d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %11.2f%n",
+          summary.scenario(), summary.completed(), summary.errors(), summary.dropped(),
+          summary.throughput(), summary.p50(), summary.p90(), summary.p99(), summary.p999(),
+          summary.max(), summary.errorP99());
+    }
+  }
+
+  /**
+   * @param errorP50 median latency of failed operations, e.g. timeouts
+   * @param errorP99 99th percentile latency of failed operations
+   */
+  record ScenarioSummary(String scenario, long completed, long errors, long dropped,
+      double throughput, double p50, double p90, double p99, double p999, double max,
+      double errorP50, double errorP99) {
+
+    static ScenarioSummary of(Scenario scenario, ScenarioStats stats, double elapsedSeconds) {
+      Histogram latencies = stats.latencies;
+      long completed = latencies.getTotalCount();
+      return new ScenarioSummary(scenario.scenarioName(), completed, stats.errors.sum(),
+          stats.dropped.sum(), completed / elapsedSeconds, millis(latencies, 50.0),
+          millis(latencies, 90.0), millis(latencies, 99.0), millis(latencies, 99.9),
+          latencies.getMaxValue() / MICROS_PER_MILLI, millis(stats.failureLatencies, 50.0),
+          millis(stats.failureLatencies, 99.0));
+    }
+
+    /**
+     * Failed and dropped operations over all arrivals.
+     */
+    double errorRate() {
+      long arrivals = this.completed + this.errors + this.dropped;
+      return arrivals > 0 ? (double) (this.errors + this.dropped) / arrivals : 0.0;
+    }
+
+    private static double millis(Histogram latencies, double percentile) {
+      return latencies.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+  }
+}
@@ -0,0 +1,147 @@
+package com.scaler.auth_server.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Starts operations at a fixed arrival rate regardless of how fast earlier ones complete (an open
+ * workload model), each on its own virtual thread. Latency is measured from the time an operation
+ * was scheduled to start rather than when it actually started, so a stalled server or generator
+ * shows up in the percentiles instead of silently lowering the offered load (coordinated
+ * omission). Failed operations are timed the same way into a histogram of their own, so timeouts
+ * and errors neither vanish from nor skew the success percentiles. Arrivals beyond
+ * {@code maxConcurrency} in-flight operations are dropped and counted.
+ */
+final class OpenModelDriver {
+  private static final Logger log = LoggerFactory.getLogger(OpenModelDriver.class);
+  private static final int LOGGED_ERRORS = 10;
+
+  private final double rate;
+  private final int maxConcurrency;
+  private final Scenario[] scenarios;
+  private final int[] cumulativeWeights;
+  private final ScenarioRunner runner;
+  private final AtomicInteger loggedErrors = new AtomicInteger();
+
+  OpenModelDriver(double rate, int maxConcurrency, Map<Scenario, Integer> mix,
+      ScenarioRunner runner) {
+    this.rate = rate;
+    this.maxConcurrency = maxConcurrency;
+    this.scenarios = mix.entrySet().stream().filter(entry -> entry.getValue() > 0)
+        .map(Map.Entry::getKey).toArray(Scenario[]::new);
+    this.cumulativeWeights = new int[this.scenarios.length];
+    int total = 0;
+    for (int i = 0; i < this.scenarios.length; i++) {
+      total += mix.get(this.scenarios[i]);
+      this.cumulativeWeights[i] = total;
+    }
+    this.runner = runner;
+  }
+
+  /**
+   * Offers load for the given duration and waits for the operations in flight to finish.
+   */
+  Run run(Duration duration) {
+    Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+    for (Scenario scenario : this.scenarios) {
+      stats.put(scenario, new ScenarioStats());
+    }
+    Semaphore inFlight = new Semaphore(this.maxConcurrency);
+    double intervalNanos = TimeUnit.SECONDS.toNanos(1) / this.rate;
+    long startedAt = System.nanoTime();
+    long endsAt = startedAt + duration.toNanos();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (long arrival = 0;; arrival++) {
+        long scheduledAt = startedAt + (long) (arrival * intervalNanos);
+        if (scheduledAt - endsAt >= 0) {
+          break;
+        }
+        long delay = scheduledAt - System.nanoTime();
+        if (delay > 0) {
+          LockSupport.parkNanos(delay);
+        }
+        Scenario scenario = nextScenario();
+        ScenarioStats scenarioStats = stats.get(scenario);
+        if (!inFlight.tryAcquire()) {
+          scenarioStats.dropped.increment();
+          continue;
+        }
+        executor.execute(() -> {
+          try {
+            this.runner.run(scenario);
+            scenarioStats.latencies.recordValue(elapsedMicros(scheduledAt));
+          } catch (Exception ex) {
+            scenarioStats.failureLatencies.recordValue(elapsedMicros(scheduledAt));
+            scenarioStats.errors.increment();
+            logError(scenario, ex);
+          } finally {
+            inFlight.release();
+          }
+        });
+      }
+    }
+    return new Run(stats, Duration.ofNanos(System.nanoTime() - startedAt));
+  }
+
+  private Scenario nextScenario() {
+    int pick = ThreadLocalRandom.current()
+        .nextInt(this.cumulativeWeights[this.cumulativeWeights.length - 1]);
+    for (int i = 0; i < this.cumulativeWeights.length; i++) {
+      if (pick < this.cumulativeWeights[i]) {
+        return this.scenarios[i];
+      }
+    }
+    throw new IllegalStateException("No scenario for weight " + pick);
+  }
+
+  private void logError(Scenario scenario, Exception ex) {
+    int logged = this.loggedErrors.incrementAndGet();
+    if (logged <= LOGGED_ERRORS) {
+      log.warn("{} failed: {}", scenario.scenarioName(), ex.getMessage());
+    } else if (logged == LOGGED_ERRORS + 1) {
+      log.warn("Further errors are only counted");
+    }
+  }
+
+  private static long elapsedMicros(long since) {
+    return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - since);
+  }
+
+  /**
+   * One scenario, run end to end on the calling thread. Throwing counts as an error.
+   */
+  @FunctionalInterface
+  interface ScenarioRunner {
+    void run(Scenario scenario) throws Exception;
+  }
+
+  /**
+   * Outcome of one scenario over a run. Latencies of successful and of failed operations are
+   * recorded apart, in microseconds.
+   */
+  static final class ScenarioStats {
+    final Histogram latencies = new ConcurrentHistogram(3);
+    final Histogram failureLatencies = new ConcurrentHistogram(3);
+    final LongAdder errors = new LongAdder();
+    final LongAdder dropped = new LongAdder();
+  }
+
+  /**
+   * Stats per scenario and the wall-clock time of the run, including draining.
+   */
+  record Run(Map<Scenario, ScenarioStats> stats, Duration elapsed) {
+  }
+}
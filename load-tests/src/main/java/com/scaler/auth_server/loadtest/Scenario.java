@@ -0,0 +1,49 @@
+package com.scaler.auth_server.loadtest;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * The flows the load test replays, each measured end to end as one operation. The authorization
+ * code flow signs in on the form login at {@code /login}, which auth-server only has when booted
+ * by the load test; against a {@code --target} without one, set the authorization code and
+ * refresh weights to 0 with {@code --mix} (refresh tokens are only issued by the code flow).
+ */
+enum Scenario {
+  /** {@code POST /api/auth/register} with a new email address. */
+  REGISTER("register", 5),
+  /** {@code POST /api/auth/login} of a seeded user. */
+  LOGIN("login", 20),
+  /** {@code GET /api/users/me} with a seeded user's token. */
+  USER_INFO("me", 50),
+  /** {@code POST /oauth2/token} with the client credentials grant. */
+  CLIENT_CREDENTIALS("client_credentials", 25),
+  /** {@code /oauth2/authorize}, form login and code exchange with PKCE. */
+  AUTHORIZATION_CODE("authorization_code", 5),
+  /** {@code POST /oauth2/token} with the refresh token grant. */
+  REFRESH_TOKEN("refresh_token", 10);
+
+  private final String scenarioName;
+  private final int defaultWeight;
+
+  Scenario(String scenarioName, int defaultWeight) {
+    this.scenarioName = scenarioName;
+    this.defaultWeight = defaultWeight;
+  }
+
+  String scenarioName() {
+    return this.scenarioName;
+  }
+
+  int defaultWeight() {
+    return this.defaultWeight;
+  }
+
+  static Scenario fromName(String name) {
+    return Arrays.stream(values()).filter(scenario -> scenario.scenarioName.equals(name))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unknown scenario " + name + ", expected "
+            + Arrays.stream(values()).map(Scenario::scenarioName)
+                .collect(Collectors.joining(", "))));
+  }
+}
@@ -0,0 +1,156 @@
+package com.scaler.auth_server.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+/**
+ * Measures how long auth-server takes from process launch to its first successful
+ * {@code POST /api/auth/login}, started from the jar extracted by the {@code aot-cache} profile in
+ * three modes: default, with the Spring AOT-processed context only, and with that context plus
+ * the JDK AOT cache. The middle mode separates what each of the two contributes. Every launch is
+ * a fresh JVM against one PostgreSQL container; an unmeasured first launch applies the migrations
+ * and registers the user, so the measured ones all find the same database.
+ *
+ * <pre>
+ * java -jar target/load-tests.jar startup --runs=5 \
+ *     --jar=../auth-server/target/aot-cache/auth-server-0.0.1-SNAPSHOT-exec.jar \
+ *     --aot-cache=../auth-server/target/aot-cache/auth-server.aot
+ * </pre>
+ */
+final class StartupBenchmark {
+  private static final Logger log = LoggerFactory.getLogger(StartupBenchmark.class);
+  private static final String EMAIL = "startup-benchmark@example.com";
+  private static final String PASSWORD = "Startup-Passw0rd!";
+  private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+  private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+  private StartupBenchmark() {}
+
+  static int run(String[] args) throws Exception {
+    Map<String, String> options = new LinkedHashMap<>();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      Assert.isTrue(arg.startsWith("--") && separator > 2,
+          () -> "Expected --name=value but got " + arg);
+      options.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+    Assert.isTrue(options.containsKey("jar") && options.containsKey("aot-cache"),
+        "--jar and --aot-cache are required");
+    Path jar = Path.of(options.get("jar")).toAbsolutePath();
+    Path aotCache = Path.of(options.get("aot-cache")).toAbsolutePath();
+    int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+    Path output = Path.of(options.getOrDefault("output", "target/startup"));
+    Assert.isTrue(Files.isRegularFile(jar), () -> jar + " does not exist");
+    Assert.isTrue(Files.isRegularFile(aotCache), () -> aotCache + " does not exist");
+    Assert.isTrue(runs > 0, "runs must be positive");
+    Files.createDirectories(output);
+
+    try (PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:17-alpine")) {
+      postgres.start();
+      List<String> datasource = List.of("--spring.datasource.url=" + postgres.getJdbcUrl(),
+          "--spring.datasource.username=" + postgres.getUsername(),
+          "--spring.datasource.password=" + postgres.getPassword());
+      Map<String, Mode> modes = new LinkedHashMap<>();
+      modes.put("default", new Mode("default", List.of()));
+      modes.put("AOT context", new Mode("aot", List.of("-Dspring.aot.enabled=true")));
+      modes.put("AOT context+cache", new Mode("cached",
+          List.of("-XX:AOTCache=" + aotCache, "-Dspring.aot.enabled=true")));
+
+      log.info("Preparing the database");
+      launch(jar, List.of(), datasource, output.resolve("prepare.log"), true);
+      Map<String, List<Duration>> results = new LinkedHashMap<>();
+      modes.keySet().forEach(name -> results.put(name, new ArrayList<>()));
+      // Alternate the modes so drift in the host affects all alike
+      for (int run = 1; run <= runs; run++) {
+        log.info("Run {} of {}", run, runs);
+        for (Map.Entry<String, Mode> mode : modes.entrySet()) {
+          Path logFile = output.resolve(mode.getValue().logPrefix() + "-" + run + ".log");
+          results.get(mode.getKey()).add(
+              launch(jar, mode.getValue().jvmArguments(), datasource, logFile, false));
+        }
+      }
+      print(results);
+    }
+    return 0;
+  }
+
+  /**
+   * Starts auth-server and returns the time until a login succeeds, then stops it.
+   */
+  private static Duration launch(Path jar, List<String> jvmArguments, List<String> arguments,
+      Path logFile, boolean registerUser) throws IOException, InterruptedException {
+    int port = freePort();
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(jvmArguments);
+    command.add("-jar");
+    command.add(jar.toString());
+    command.add("--server.port=" + port);
+    command.addAll(arguments);
+    AuthServerClient client = new AuthServerClient(URI.create("http://localhost:" + port));
+
+    long startedAt = System.nanoTime();
+    Process process = new ProcessBuilder(command).redirectErrorStream(true)
+        .redirectOutput(logFile.toFile()).start();
+    try {
+      long deadline = startedAt + STARTUP_TIMEOUT.toNanos();
+      while (true) {
+        try {
+          if (registerUser) {
+            client.register("Startup Benchmark", EMAIL, PASSWORD);
+            registerUser = false;
+          }
+          client.login(EMAIL, PASSWORD);
+          return Duration.ofNanos(System.nanoTime() - startedAt);
+        } catch (LoadTestException ex) {
+          if (!process.isAlive()) {
+            throw new IllegalStateException("auth-server exited, see " + logFile, ex);
+          }
+          if (System.nanoTime() - deadline >= 0) {
+            throw new IllegalStateException("No successful login within " + STARTUP_TIMEOUT
+                + ", see " + logFile, ex);
+          }
+          Thread.sleep(POLL_INTERVAL);
+        }
+      }
+    } finally {
+      process.destroy();
+      if (!process.waitFor(30, TimeUnit.SECONDS)) {
+        process.destroyForcibly().waitFor();
+      }
+    }
+  }
+
+  private static void print(Map<String, List<Duration>> results) {
+    System.out.printf("%nTime to first successful login%n");
+    System.out.printf("%-18s %5s %10s %10s %10s%n", "mode", "runs", "min ms", "median ms",
+        "max ms");
+    results.forEach((mode, durations) -> {
+      List<Long> millis = durations.stream().map(Duration::toMillis).sorted().toList();
+      System.out.printf("%-18s %5d %10d %10d %10d%n", mode, millis.size(), millis.getFirst(),
+          millis.get(millis.size() / 2), millis.getLast());
+    });
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  private record Mode(String logPrefix, List<String> jvmArguments) {
+  }
+}
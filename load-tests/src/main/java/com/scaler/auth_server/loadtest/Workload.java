@@ -0,0 +1,128 @@
+package com.scaler.auth_server.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.scaler.auth_server.loadtest.AuthServerClient.ClientCredentials;
+import com.scaler.auth_server.loadtest.AuthServerClient.Tokens;
+import com.scaler.auth_server.loadtest.OpenModelDriver.ScenarioRunner;
+
+/**
+ * The state the scenarios share: a pool of registered users with their latest tokens and one
+ * confidential client. Every scenario picks a random user, so logins and token lookups spread
+ * over the pool instead of hitting one cached row.
+ */
+final class Workload implements ScenarioRunner {
+  private static final Logger log = LoggerFactory.getLogger(Workload.class);
+  private static final String PASSWORD = "LoadTest-Passw0rd!";
+  private static final int SEED_CONCURRENCY = 16;
+
+  private final AuthServerClient client;
+  // Keeps emails unique when runs share a database
+  private final String runId;
+  private final List<VirtualUser> users;
+  private final ClientCredentials registeredClient;
+  private final AtomicLong registrations = new AtomicLong();
+
+  private Workload(AuthServerClient client, String runId, List<VirtualUser> users,
+      ClientCredentials registeredClient) {
+    this.client = client;
+    this.runId = runId;
+    this.users = users;
+    this.registeredClient = registeredClient;
+  }
+
+  /**
+   * Registers and logs in {@code userCount} users, then registers the client as the first one.
+   */
+  static Workload seed(AuthServerClient client, int userCount) throws InterruptedException {
+    String runId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    log.info("Seeding {} users", userCount);
+    List<Future<VirtualUser>> futures = new ArrayList<>(userCount);
+    try (ExecutorService executor =
+        Executors.newFixedThreadPool(SEED_CONCURRENCY, Thread.ofVirtual().factory())) {
+      for (int i = 0; i < userCount; i++) {
+        String email = email(runId, "user", i);
+        futures.add(executor.submit(() -> {
+          client.register("Load Test User", email, PASSWORD);
+          VirtualUser user = new VirtualUser(email);
+          user.accessToken = client.login(email, PASSWORD);
+          return user;
+        }));
+      }
+    }
+    List<VirtualUser> users = new ArrayList<>(userCount);
+    for (Future<VirtualUser> future : futures) {
+      try {
+        users.add(future.get());
+      } catch (ExecutionException ex) {
+        throw new LoadTestException("Seeding users failed: " + ex.getCause().getMessage(),
+            ex.getCause());
+      }
+    }
+    ClientCredentials registeredClient = client.registerClient(users.getFirst().accessToken);
+    log.info("Registered client {}", registeredClient.clientId());
+    return new Workload(client, runId, List.copyOf(users), registeredClient);
+  }
+
+  @Override
+  public void run(Scenario scenario) {
+    switch (scenario) {
+      case REGISTER -> this.client.register("Load Test User",
+          email(this.runId, "new", this.registrations.incrementAndGet()), PASSWORD);
+      case LOGIN -> {
+        VirtualUser user = randomUser();
+        user.accessToken = this.client.login(user.email, PASSWORD);
+      }
+      case USER_INFO -> this.client.userInfo(randomUser().accessToken);
+      case CLIENT_CREDENTIALS -> this.client.clientCredentials(this.registeredClient);
+      case AUTHORIZATION_CODE -> {
+        VirtualUser user = randomUser();
+        user.refreshToken = authorizationCode(user).refreshToken();
+      }
+      case REFRESH_TOKEN -> refresh(randomUser());
+    }
+  }
+
+  /**
+   * Refreshes the user's tokens, running the code flow first when the user has no refresh token
+   * yet. A rotated refresh token replaces the stored one.
+   */
+  private void refresh(VirtualUser user) {
+    String refreshToken = user.refreshToken;
+    if (refreshToken == null) {
+      refreshToken = authorizationCode(user).refreshToken();
+    }
+    Tokens tokens = this.client.refresh(this.registeredClient, refreshToken);
+    user.refreshToken = tokens.refreshToken() != null ? tokens.refreshToken() : refreshToken;
+  }
+
+  private Tokens authorizationCode(VirtualUser user) {
+    return this.client.authorizationCode(this.registeredClient, user.email, PASSWORD);
+  }
+
+  private VirtualUser randomUser() {
+    return this.users.get(ThreadLocalRandom.current().nextInt(this.users.size()));
+  }
+
+  private static String email(String runId, String kind, long index) {
+    return "load-" + runId + "-" + kind + "-" + index + "@example.com";
+  }
+
+  private static final class VirtualUser {
+    final String email;
+    volatile String accessToken;
+    volatile String refreshToken;
+
+    VirtualUser(String email) {
+      this.email = email;
+    }
+  }
+}